@@ -0,0 +1,137 @@
+package com.etl;
+
+import com.etl.model.Transaction;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fixed-seed input data shared by the benchmarks.
+ *
+ * "clean" rows are already in canonical form (title-case names, formatted
+ * phones, lowercase emails, plain amounts). "dirty" rows carry the issues the
+ * cleaner exists for: shouting names, quoted fields with commas, raw or
+ * international phones, padded/mixed-case codes and "$1,234.50" amounts.
+ */
+public final class BenchmarkData {
+
+    public static final String HEADER = "transaction_id,customer_id,full_name,phone,email,amount,currency,date,type,country";
+
+    private static final String[] FIRST = {"john", "jane", "carlos", "priya", "wei", "fatima", "olga", "kwame"};
+    private static final String[] LAST = {"smith", "doe", "mendez", "patel", "zhang", "ali", "ivanova", "mensah"};
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "INR", "CAD", "AUD", "JPY", "MXN"};
+    private static final String[] TYPES = {"WIRE", "CASH", "ACH", "DEBIT"};
+    private static final String[] COUNTRIES = {"US", "GB", "DE", "IN", "MX", "JP", "KP", "IR"};
+
+    private BenchmarkData() {}
+
+    /**
+     * @param currency a single currency code, or "MIXED" to cycle through all supported ones
+     */
+    public static List<String> csvLines(int count, boolean dirty, String dateFormat, String currency) {
+        Random rnd = new Random(42);
+        DateTimeFormatter fmt = DateTimeFormatter.ofPattern(dateFormat);
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        List<String> lines = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            String first = FIRST[rnd.nextInt(FIRST.length)];
+            String last = LAST[rnd.nextInt(LAST.length)];
+            long phone = 2_000_000_000L + rnd.nextInt(1_000_000_000);
+            double amount = 10 + rnd.nextInt(60_000_00) / 100.0;
+            String ccy = pickCurrency(currency, i);
+            String date = base.plusDays(rnd.nextInt(365)).format(fmt);
+            String type = TYPES[rnd.nextInt(TYPES.length)];
+            String country = COUNTRIES[rnd.nextInt(COUNTRIES.length)];
+
+            if (dirty) {
+                lines.add(String.format("TXN%07d,CUST%05d,\"%s, %s\",+1-%s,%s.%s@Example.COM ,\"$%,.2f\", %s ,%s,%s , %s",
+                        i, rnd.nextInt(100_000), last.toUpperCase(), first.toUpperCase(),
+                        formatDashed(phone), first.toUpperCase(), last, amount,
+                        ccy.toLowerCase(), date, type.toLowerCase(), country.toLowerCase()));
+            } else {
+                lines.add(String.format("TXN%07d,CUST%05d,%s %s,%s,%s.%s@example.com,%.2f,%s,%s,%s,%s",
+                        i, rnd.nextInt(100_000), capitalize(first), capitalize(last),
+                        formatUS(phone), first, last, amount, ccy, date, type, country));
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Parsed transactions as the cleaner receives them from the reader.
+     */
+    public static List<Transaction> transactions(int count, boolean dirty, String currency) {
+        List<Transaction> result = new ArrayList<>(count);
+        Random rnd = new Random(7);
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < count; i++) {
+            String first = FIRST[rnd.nextInt(FIRST.length)];
+            String last = LAST[rnd.nextInt(LAST.length)];
+            long phone = 2_000_000_000L + rnd.nextInt(1_000_000_000);
+
+            Transaction t = new Transaction();
+            t.setTransactionId(String.format("TXN%07d", i));
+            t.setCustomerId(String.format("CUST%05d", rnd.nextInt(100_000)));
+            t.setFullName(dirty ? (first + "  " + last).toUpperCase() : capitalize(first) + " " + capitalize(last));
+            t.setPhone(dirty ? "+1-" + formatDashed(phone) : formatUS(phone));
+            t.setEmail(dirty ? (first + "." + last + "@Example.COM ").toUpperCase() : first + "." + last + "@example.com");
+            t.setAmount(10 + rnd.nextInt(60_000_00) / 100.0);
+            String ccy = pickCurrency(currency, i);
+            t.setCurrency(dirty ? " " + ccy.toLowerCase() : ccy);
+            t.setTransactionDate(base.plusDays(rnd.nextInt(365)));
+            String type = TYPES[rnd.nextInt(TYPES.length)];
+            t.setTransactionType(dirty ? type.toLowerCase() + " " : type);
+            String country = COUNTRIES[rnd.nextInt(COUNTRIES.length)];
+            t.setCountry(dirty ? country.toLowerCase() : country);
+            t.setFlaggedForReview(false);
+            result.add(t);
+        }
+        return result;
+    }
+
+    /**
+     * Field-by-field copy, so benchmarks of mutating stages always see pristine input.
+     */
+    public static Transaction copy(Transaction src) {
+        Transaction t = new Transaction();
+        t.setTransactionId(src.getTransactionId());
+        t.setCustomerId(src.getCustomerId());
+        t.setFullName(src.getFullName());
+        t.setPhone(src.getPhone());
+        t.setEmail(src.getEmail());
+        t.setAmount(src.getAmount());
+        t.setCurrency(src.getCurrency());
+        t.setTransactionDate(src.getTransactionDate());
+        t.setTransactionType(src.getTransactionType());
+        t.setCountry(src.getCountry());
+        t.setFlaggedForReview(src.isFlaggedForReview());
+        t.setNoteCodes(src.getNoteCodes());
+        t.setAmlFlags(src.getAmlFlags());
+        t.setSourceCurrency(src.getSourceCurrency());
+        t.setFxRate(src.getFxRate());
+        t.setDuplicateOf(src.getDuplicateOf());
+        return t;
+    }
+
+    private static String pickCurrency(String currency, int i) {
+        return "MIXED".equals(currency) ? CURRENCIES[i % CURRENCIES.length] : currency;
+    }
+
+    private static String capitalize(String s) {
+        return Character.toUpperCase(s.charAt(0)) + s.substring(1);
+    }
+
+    private static String formatUS(long phone) {
+        String d = Long.toString(phone);
+        return "(" + d.substring(0, 3) + ") " + d.substring(3, 6) + "-" + d.substring(6);
+    }
+
+    private static String formatDashed(long phone) {
+        String d = Long.toString(phone);
+        return d.substring(0, 3) + "-" + d.substring(3, 6) + "-" + d.substring(6);
+    }
+}
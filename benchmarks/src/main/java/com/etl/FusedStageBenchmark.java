@@ -0,0 +1,59 @@
+package com.etl;
+
+import com.etl.cleaner.DataCleaner;
+import com.etl.model.Transaction;
+import com.etl.transformer.DataTransformer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clean + transform over a list of records, as two full passes versus one
+ * fused pass. One operation is the whole list; copying the template
+ * records is included in both.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FusedStageBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    @Param({"clean", "dirty"})
+    public String data;
+
+    private List<Transaction> templates;
+    private final DataCleaner cleaner = new DataCleaner();
+    private final DataTransformer transformer = new DataTransformer();
+    private final FusedStage fused = Stage.fuse(cleaner, transformer);
+
+    @Setup
+    public void setup() {
+        templates = BenchmarkData.transactions(rows, "dirty".equals(data), "MIXED");
+    }
+
+    private List<Transaction> copies() {
+        List<Transaction> copies = new ArrayList<>(templates.size());
+        for (Transaction t : templates) {
+            copies.add(BenchmarkData.copy(t));
+        }
+        return copies;
+    }
+
+    @Benchmark
+    public List<Transaction> separatePasses() {
+        return transformer.transform(cleaner.clean(copies()));
+    }
+
+    @Benchmark
+    public List<Transaction> fusedPass() {
+        transformer.reset();
+        return fused.run(copies(), new StageCounters());
+    }
+}
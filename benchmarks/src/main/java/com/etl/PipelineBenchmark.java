@@ -0,0 +1,87 @@
+package com.etl;
+
+import com.etl.cleaner.DataCleaner;
+import com.etl.loader.DatabaseLoader;
+import com.etl.model.Transaction;
+import com.etl.reader.CSVReader;
+import com.etl.transformer.DataTransformer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end extract/clean/transform/load of a generated CSV file into a
+ * fresh SQLite database. One operation is one full pipeline run over
+ * {@code rows} records; run with the gc profiler (the default when launched
+ * through {@link #main}) to get allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"clean", "dirty"})
+    public String data;
+
+    private Path csvFile;
+    private Path dbFile;
+
+    @Setup(Level.Trial)
+    public void writeInput() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add(BenchmarkData.HEADER);
+        lines.addAll(BenchmarkData.csvLines(rows, "dirty".equals(data), "yyyy-MM-dd", "MIXED"));
+        csvFile = Files.createTempFile("etl-bench", ".csv");
+        Files.write(csvFile, lines);
+    }
+
+    @Setup(Level.Invocation)
+    public void freshDatabase() throws IOException {
+        dbFile = Files.createTempFile("etl-bench", ".db");
+        Files.delete(dbFile);
+    }
+
+    @TearDown(Level.Invocation)
+    public void dropDatabase() throws IOException {
+        Files.deleteIfExists(dbFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteInput() throws IOException {
+        Files.deleteIfExists(csvFile);
+    }
+
+    @Benchmark
+    public int pipeline() throws Exception {
+        List<Transaction> raw = new CSVReader().read(csvFile.toString());
+        List<Transaction> cleaned = new DataCleaner().clean(raw);
+        List<Transaction> transformed = new DataTransformer().transform(cleaned);
+        try (DatabaseLoader loader = new DatabaseLoader(dbFile.toString())) {
+            return loader.load(transformed);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PipelineBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
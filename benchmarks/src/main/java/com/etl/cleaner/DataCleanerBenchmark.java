@@ -0,0 +1,49 @@
+package com.etl.cleaner;
+
+import com.etl.BenchmarkData;
+import com.etl.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of normalizing one record. Clean records exercise the "nothing to fix"
+ * path; dirty ones pay for title-casing, phone reformatting and note building.
+ * The copy of the template record is included in every operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataCleanerBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"clean", "dirty"})
+    public String data;
+
+    private final DataCleaner cleaner = new DataCleaner();
+    private Transaction[] templates;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        templates = BenchmarkData.transactions(ROWS, "dirty".equals(data), "USD").toArray(new Transaction[0]);
+    }
+
+    @Benchmark
+    public Transaction copyOnly() {
+        cursor = (cursor + 1) & (ROWS - 1);
+        return BenchmarkData.copy(templates[cursor]);
+    }
+
+    @Benchmark
+    public Transaction applyFixes() {
+        cursor = (cursor + 1) & (ROWS - 1);
+        Transaction t = BenchmarkData.copy(templates[cursor]);
+        cleaner.applyFixes(t);
+        return t;
+    }
+}
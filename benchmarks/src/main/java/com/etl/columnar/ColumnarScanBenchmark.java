@@ -0,0 +1,75 @@
+package com.etl.columnar;
+
+import com.etl.BenchmarkData;
+import com.etl.loader.DatabaseLoader;
+import com.etl.model.Transaction;
+import com.etl.transformer.DataTransformer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.*;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * "Flagged volume by country" over the same rows, as a GROUP BY on the
+ * loaded SQLite table versus a scan of the columnar export.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ColumnarScanBenchmark {
+
+    @Param({"1000000"})
+    public int rows;
+
+    private Path dir;
+    private Connection conn;
+    private ColumnarFile columnar;
+    private final ColumnarFilter flagged = new ColumnarFilter();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        List<Transaction> transactions = new DataTransformer()
+                .transform(BenchmarkData.transactions(rows, false, "MIXED"));
+        dir = Files.createTempDirectory("etl-columnar-bench");
+        try (DatabaseLoader loader = new DatabaseLoader(dir.resolve("bench.db").toString());
+             ColumnarWriter writer = new ColumnarWriter(dir.resolve("bench.etlc"))) {
+            loader.load(transactions);
+            writer.write(transactions);
+        }
+        conn = DriverManager.getConnection("jdbc:sqlite:" + dir.resolve("bench.db"));
+        columnar = ColumnarFile.open(dir.resolve("bench.etlc"));
+        flagged.setFlaggedOnly(true);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, SQLException {
+        conn.close();
+        columnar.close();
+        Files.deleteIfExists(dir.resolve("bench.db"));
+        Files.deleteIfExists(dir.resolve("bench.etlc"));
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public double sqliteGroupBy() throws SQLException {
+        double total = 0;
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT country, SUM(amount_usd) FROM transactions WHERE flagged = 1 GROUP BY country")) {
+            while (rs.next()) total += rs.getDouble(2);
+        }
+        return total;
+    }
+
+    @Benchmark
+    public ScanResult columnarScan() {
+        return columnar.aggregate(flagged, ColumnarFile.Dimension.COUNTRY);
+    }
+}
@@ -0,0 +1,56 @@
+package com.etl.loader;
+
+import com.etl.BenchmarkData;
+import com.etl.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to batch-insert a fixed number of rows into a fresh SQLite file.
+ * Every measured iteration starts from an empty, schema-initialized database.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DatabaseLoaderBenchmark {
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    private List<Transaction> transactions;
+    private Path dbFile;
+    private DatabaseLoader loader;
+
+    @Setup(Level.Trial)
+    public void prepareData() {
+        transactions = BenchmarkData.transactions(rows, false, "USD");
+    }
+
+    @Setup(Level.Iteration)
+    public void freshDatabase() throws IOException, SQLException {
+        dbFile = Files.createTempFile("etl-bench", ".db");
+        Files.delete(dbFile);
+        loader = new DatabaseLoader(dbFile.toString());
+        loader.initSchema();
+    }
+
+    @TearDown(Level.Iteration)
+    public void dropDatabase() throws IOException, SQLException {
+        loader.close();
+        Files.deleteIfExists(dbFile);
+    }
+
+    @Benchmark
+    public int batchInsert() throws SQLException {
+        return loader.batchInsert(transactions);
+    }
+}
@@ -0,0 +1,69 @@
+package com.etl.reader;
+
+import com.etl.BenchmarkData;
+import com.etl.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-line cost of CSV tokenizing, date parsing and full line parsing.
+ * Each date format is benchmarked separately because parseDate tries the
+ * formats in order and pays an exception for every miss.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CSVReaderBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"clean", "dirty"})
+    public String data;
+
+    @Param({"yyyy-MM-dd", "MM/dd/yyyy", "dd-MM-yyyy"})
+    public String dateFormat;
+
+    @Param({"USD", "MIXED"})
+    public String currency;
+
+    private final CSVReader reader = new CSVReader();
+    private String[] lines;
+    private String[] dates;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        List<String> generated = BenchmarkData.csvLines(ROWS, "dirty".equals(data), dateFormat, currency);
+        lines = generated.toArray(new String[0]);
+        dates = new String[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            dates[i] = CSVReader.splitCSV(lines[i])[7].trim();
+        }
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (ROWS - 1);
+        return cursor;
+    }
+
+    @Benchmark
+    public String[] splitCSV() {
+        return CSVReader.splitCSV(lines[next()]);
+    }
+
+    @Benchmark
+    public LocalDate parseDate() {
+        return CSVReader.parseDate(dates[next()]);
+    }
+
+    @Benchmark
+    public Transaction parseLine() {
+        return reader.parseLine(lines[next()]);
+    }
+}
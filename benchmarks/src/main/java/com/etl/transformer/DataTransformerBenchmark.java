@@ -0,0 +1,62 @@
+package com.etl.transformer;
+
+import com.etl.BenchmarkData;
+import com.etl.model.Transaction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of currency conversion and AML flagging for one record, per currency
+ * mix. USD records skip conversion entirely; MIXED cycles through every
+ * supported currency. The copy of the template record is included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataTransformerBenchmark {
+
+    private static final int ROWS = 1024;
+
+    @Param({"USD", "EUR", "JPY", "MIXED"})
+    public String currency;
+
+    private final DataTransformer transformer = new DataTransformer();
+    private Transaction[] templates;
+    private int cursor;
+
+    @Setup
+    public void setup() {
+        templates = BenchmarkData.transactions(ROWS, false, currency).toArray(new Transaction[0]);
+    }
+
+    private Transaction next() {
+        cursor = (cursor + 1) & (ROWS - 1);
+        return BenchmarkData.copy(templates[cursor]);
+    }
+
+    @Benchmark
+    public Transaction convertToUSD() {
+        Transaction t = next();
+        transformer.convertToUSD(t);
+        return t;
+    }
+
+    @Benchmark
+    public Transaction applyFlaggingRules() {
+        Transaction t = next();
+        transformer.applyFlaggingRules(t);
+        return t;
+    }
+
+    @Benchmark
+    public Transaction convertAndFlag() {
+        Transaction t = next();
+        transformer.convertToUSD(t);
+        transformer.applyFlaggingRules(t);
+        return t;
+    }
+}
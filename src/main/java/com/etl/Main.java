@@ -1,13 +1,35 @@
 package com.etl;
 
-import com.etl.cleaner.DataCleaner;
+import com.etl.cluster.Coordinator;
+import com.etl.cluster.Partitioner;
+import com.etl.cluster.ResultFile;
+import com.etl.columnar.ColumnarFile;
+import com.etl.columnar.ColumnarFilter;
+import com.etl.columnar.ScanResult;
+import com.etl.daemon.IngestDaemon;
+import com.etl.export.FlaggedExporter;
+import com.etl.generator.GeneratorConfig;
+import com.etl.generator.TransactionGenerator;
+import com.etl.governor.MemoryGovernor;
 import com.etl.loader.DatabaseLoader;
+import com.etl.metrics.MetricsRegistry;
+import com.etl.metrics.StageMetrics;
+import com.etl.metrics.StartupClock;
 import com.etl.model.ETLResult;
 import com.etl.model.Transaction;
 import com.etl.reader.CSVReader;
+import com.etl.reader.InputFiles;
+import com.etl.reader.MultiFileReader;
+import com.etl.reader.RecordSource;
 import com.etl.reporter.QualityReporter;
-import com.etl.transformer.DataTransformer;
+import com.etl.reporter.QualityStats;
 
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -20,21 +42,116 @@ import java.util.List;
  *   4. Load     — Write to SQLite database
  *   5. Report   — Print data quality summary
  *
+ * Each stage is measured in a {@link MetricsRegistry} (exposed over JMX and
+ * written as etl_metrics_*.json next to the quality report).
+ *
  * Usage:
  *   java -jar etl-pipeline.jar <input_csv> <output_db>
  *
+ * Near-duplicate handling is controlled with -Detl.nearDuplicates=flag|quarantine|off
+ * (default: flag).
+ *
  * Example:
  *   java -jar etl-pipeline.jar data/transactions.csv data/transactions.db
+ *
+ * The input may also be a directory, a glob, an @manifest file or a
+ * comma-separated list of these; gzip/zip files are decompressed on the fly
+ * and files are read in parallel (-Detl.readerThreads, default: all cores).
+ *
+ * An input of the form gen:[spec] streams synthetic rows from the
+ * {@link TransactionGenerator} instead of reading a file, e.g.
+ *   java -jar etl-pipeline.jar gen:rows=1000000,seed=7 data/synthetic.db
+ *
+ * With -Detl.memoryBudgetMb=N the run is done in external-memory mode:
+ * records stream from the input through disk-backed sorts (dedup by ID,
+ * near-duplicate grouping by date, customer and amount, then load order by
+ * transaction ID) and the heap stays bounded by the budget whatever the
+ * input size. Files are then read one after another.
+ *
+ * A {@link MemoryGovernor} adapts the loader's commit size to a target
+ * commit time (-Detl.governor.targetCommitMs, default 50) and applies
+ * backpressure above a heap watermark (-Detl.governor.highWatermark, 0.80).
+ *
+ * Daemon mode keeps the pipeline warm and ingests files dropped into an inbox:
+ *   java -jar etl-pipeline.jar --daemon <inbox_dir> <output_db>
+ * tuned with -Detl.daemon.maxLatencyMs (default 250) and
+ * -Detl.daemon.maxBatchRecords (default 50000).
+ *
+ * Coordinator mode partitions the input by customer_id and runs one worker
+ * process per partition (-Detl.workers, default: all cores), each into its
+ * own shard database, then merges their results into one report:
+ *   java -jar etl-pipeline.jar --coordinator <input> <output_dir>
+ * The phases can also be run by hand, e.g. with workers on other machines:
+ *   --partition <input> <output_dir>, --worker <input> <output_db> <result_file>,
+ *   --merge <output_dir>
+ *
+ * With -Detl.columnarExport=<file> a batch run also writes the loaded rows
+ * to a compact columnar file for analytic scans, which can be queried with
+ *   java -jar etl-pipeline.jar --scan <file> [country|type|currency] [flagged]
+ *
+ * Flagged transactions stream out of an output database for compliance
+ * review, optionally limited to a date range (inclusive, yyyy-MM-dd):
+ *   java -jar etl-pipeline.jar --export-flagged <db> <out.csv|out.jsonl|-> [from] [to]
+ * tuned with -Detl.export.fetchSize (default 1000) and -Detl.export.bufferKb (4096).
+ *
+ * -Detl.fastStart=true trims start-up for short runs: no JMX registration and
+ * the SQLite driver is loaded in the background while the input is read. The
+ * bin/etl launcher sets it and uses the AppCDS archive built by the appcds
+ * profile. Every run records the time from JVM start to its first parsed row
+ * as the startup.firstRowMillis gauge.
  */
 public class Main {
 
     private static final String DEFAULT_INPUT  = "data/transactions.csv";
     private static final String DEFAULT_OUTPUT = "data/transactions.db";
+    private static final String GENERATOR_PREFIX = "gen:";
+    private static final boolean FAST_START = Boolean.getBoolean("etl.fastStart");
 
     public static void main(String[] args) {
-        String inputFile  = args.length > 0 ? args[0] : DEFAULT_INPUT;
-        String outputDb   = args.length > 1 ? args[1] : DEFAULT_OUTPUT;
+        if (args.length > 0 && "--daemon".equals(args[0])) {
+            runDaemon(args);
+            return;
+        }
+        if (args.length > 0 && "--coordinator".equals(args[0])) {
+            runCoordinator(args);
+            return;
+        }
+        if (args.length > 0 && "--partition".equals(args[0])) {
+            runPartition(args);
+            return;
+        }
+        if (args.length > 0 && "--merge".equals(args[0])) {
+            runMerge(args);
+            return;
+        }
+        if (args.length > 0 && "--export-flagged".equals(args[0])) {
+            runExportFlagged(args);
+            return;
+        }
+        if (args.length > 0 && "--scan".equals(args[0])) {
+            runScan(args);
+            return;
+        }
+        if (args.length > 0 && "--worker".equals(args[0])) {
+            if (args.length < 4) {
+                System.err.println("Usage: java -jar etl-pipeline.jar --worker <input> <output_db> <result_file>");
+                System.exit(2);
+            }
+            runBatch(args[1], args[2], Path.of(args[3]));
+            return;
+        }
 
+        runBatch(args.length > 0 ? args[0] : DEFAULT_INPUT,
+                 args.length > 1 ? args[1] : DEFAULT_OUTPUT, null);
+    }
+
+    /**
+     * Runs the pipeline once over the input; a worker also writes its totals to resultFile.
+     */
+    private static void runBatch(String inputFile, String outputDb, Path resultFile) {
+        if (FAST_START) {
+            DatabaseLoader.warmUpInBackground();
+        }
         System.out.println("+----------------------------------------------+");
         System.out.println("|   Customer Transaction ETL Pipeline v1.0    |");
         System.out.println("+----------------------------------------------+");
@@ -42,42 +159,65 @@ public class Main {
         System.out.printf("  Output : %s%n%n", outputDb);
 
         ETLResult result = new ETLResult();
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.gauge("startup.firstRowMillis", StartupClock::getFirstRowMillis);
+        MemoryGovernor governor = MemoryGovernor.fromSystemProperties();
         long startTime = System.currentTimeMillis();
 
+        long memoryBudgetMb = Long.getLong("etl.memoryBudgetMb", 0);
+        if (memoryBudgetMb > 0) {
+            runExternal(inputFile, outputDb, memoryBudgetMb << 20, resultFile, metrics, governor, startTime);
+            return;
+        }
+
         try {
             // ── STAGE 1: EXTRACT ──────────────────────────────────
             System.out.println("[Stage 1/4] Extracting data from CSV...");
-            CSVReader reader = new CSVReader();
-            List<Transaction> raw = reader.read(inputFile);
+            StageMetrics readStage = metrics.stage("reader");
+            readStage.start();
+            List<Transaction> raw;
+            int skipped;
+            if (inputFile.startsWith(GENERATOR_PREFIX)) {
+                CSVReader reader = new CSVReader();
+                TransactionGenerator generator = new TransactionGenerator(
+                        GeneratorConfig.parse(inputFile.substring(GENERATOR_PREFIX.length())));
+                raw = reader.read(new InputStreamReader(generator.openStream(), StandardCharsets.UTF_8), inputFile);
+                skipped = reader.getSkippedRows();
+            } else {
+                List<Path> files = InputFiles.resolve(inputFile);
+                MultiFileReader reader = new MultiFileReader(
+                        Integer.getInteger("etl.readerThreads", Runtime.getRuntime().availableProcessors()));
+                reader.setGovernor(governor);
+                raw = reader.read(files);
+                skipped = reader.getSkippedRows();
+                reader.getFileStats().forEach(result::addFileStats);
+                readStage.addAllocatedBytes(reader.getAllocatedBytes());
+            }
+            readStage.stop(raw.size() + skipped, raw.size());
             result.setTotalRead(raw.size());
 
-            // ── STAGE 2: CLEAN ────────────────────────────────────
-            System.out.println("\n[Stage 2/4] Cleaning and validating records...");
-            DataCleaner cleaner = new DataCleaner();
-            List<Transaction> cleaned = cleaner.clean(raw);
-            result.setTotalCleaned(cleaned.size());
-            result.setTotalRejected(cleaner.getRejectedCount());
-            cleaner.getRejectedReasons().forEach(result::addRejectedRow);
-
-            // ── STAGE 3: TRANSFORM ────────────────────────────────
-            System.out.println("\n[Stage 3/4] Applying business transformations...");
-            DataTransformer transformer = new DataTransformer();
-            List<Transaction> transformed = transformer.transform(cleaned);
-            result.setTotalFlagged(transformer.getFlaggedCount());
-
-            // ── STAGE 4: LOAD ─────────────────────────────────────
-            System.out.println("\n[Stage 4/4] Loading to database...");
-            DatabaseLoader loader = new DatabaseLoader(outputDb);
-            int loaded = loader.load(transformed);
-            result.setTotalLoaded(loaded);
-            loader.printLoadSummary();
+            List<Transaction> transformed;
+            try (Pipeline pipeline = new Pipeline(outputDb, metrics, governor)) {
+                configureExports(pipeline);
+                transformed = pipeline.process(raw, result);
+                pipeline.getLoader().printLoadSummary();
+            }
 
             // ── REPORT ────────────────────────────────────────────
+            StageMetrics reportStage = metrics.stage("reporter");
+            reportStage.start();
             QualityReporter reporter = new QualityReporter();
-            reporter.printReport(result, transformed);
+            QualityStats stats = QualityStats.of(transformed);
+            reporter.printReport(result, stats);
+            reportStage.stop(transformed.size(), transformed.size());
+            reporter.writeMetrics(metrics);
+            if (resultFile != null) {
+                new ResultFile(result, stats).write(resultFile);
+            }
 
             long elapsed = System.currentTimeMillis() - startTime;
-            System.out.printf("Pipeline completed in %.2f seconds.%n", elapsed / 1000.0);
+            System.out.printf("Pipeline completed in %.2f seconds (first row after %d ms).%n",
+                    elapsed / 1000.0, StartupClock.getFirstRowMillis());
 
         } catch (Exception e) {
             System.err.println("\n[FATAL] Pipeline failed: " + e.getMessage());
@@ -85,4 +225,199 @@ public class Main {
             System.exit(1);
         }
     }
-}
\ No newline at end of file
+
+    private static void runExternal(String inputFile, String outputDb, long memoryBudgetBytes, Path resultFile,
+                                    MetricsRegistry metrics, MemoryGovernor governor, long startTime) {
+        ETLResult result = new ETLResult();
+
+        try {
+            RecordSource source;
+            if (inputFile.startsWith(GENERATOR_PREFIX)) {
+                TransactionGenerator generator = new TransactionGenerator(
+                        GeneratorConfig.parse(inputFile.substring(GENERATOR_PREFIX.length())));
+                source = sink -> new CSVReader().read(
+                        new InputStreamReader(generator.openStream(), StandardCharsets.UTF_8), inputFile, sink);
+            } else {
+                List<Path> files = InputFiles.resolve(inputFile);
+                source = sink -> {
+                    for (Path file : files) {
+                        new CSVReader().read(InputFiles.openReader(file), file.toString(), sink);
+                    }
+                };
+            }
+
+            QualityStats stats;
+            try (Pipeline pipeline = new Pipeline(outputDb, metrics, governor)) {
+                configureExports(pipeline);
+                stats = pipeline.processExternal(source, result, memoryBudgetBytes);
+                pipeline.getLoader().printLoadSummary();
+            }
+
+            StageMetrics reportStage = metrics.stage("reporter");
+            reportStage.start();
+            QualityReporter reporter = new QualityReporter();
+            reporter.printReport(result, stats);
+            reportStage.stop(stats.getCount(), stats.getCount());
+            reporter.writeMetrics(metrics);
+            if (resultFile != null) {
+                new ResultFile(result, stats).write(resultFile);
+            }
+
+            long elapsed = System.currentTimeMillis() - startTime;
+            System.out.printf("Pipeline completed in %.2f seconds (first row after %d ms).%n",
+                    elapsed / 1000.0, StartupClock.getFirstRowMillis());
+
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Pipeline failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void configureExports(Pipeline pipeline) throws IOException {
+        String columnar = System.getProperty("etl.columnarExport");
+        if (columnar != null && !columnar.isBlank()) {
+            pipeline.setColumnarExport(Path.of(columnar));
+        }
+    }
+
+    private static void runExportFlagged(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java -jar etl-pipeline.jar --export-flagged <db> <output.csv|output.jsonl|-> [from] [to]");
+            System.exit(2);
+        }
+        FlaggedExporter exporter = new FlaggedExporter(args[1]);
+        String format = System.getProperty("etl.export.format");
+        exporter.setFormat(format != null ? FlaggedExporter.Format.valueOf(format.toUpperCase())
+                : FlaggedExporter.Format.forFile(args[2]));
+        exporter.setFetchSize(Integer.getInteger("etl.export.fetchSize", FlaggedExporter.DEFAULT_FETCH_SIZE));
+        exporter.setBufferBytes(Integer.getInteger("etl.export.bufferKb", FlaggedExporter.DEFAULT_BUFFER_BYTES >> 10) << 10);
+        try {
+            if (args.length > 3) exporter.setFrom(LocalDate.parse(args[3]));
+            if (args.length > 4) exporter.setTo(LocalDate.parse(args[4]));
+            if ("-".equals(args[2])) {
+                exporter.export(Channels.newChannel(System.out));
+                System.out.flush();
+            } else {
+                exporter.export(Path.of(args[2]));
+            }
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Export failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void runScan(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java -jar etl-pipeline.jar --scan <columnar_file> [country|type|currency] [flagged]");
+            System.exit(2);
+        }
+        ColumnarFile.Dimension groupBy = args.length > 2 && !"all".equalsIgnoreCase(args[2])
+                ? ColumnarFile.Dimension.valueOf(args[2].toUpperCase()) : null;
+        ColumnarFilter filter = new ColumnarFilter();
+        filter.setFlaggedOnly(args.length > 3 && "flagged".equalsIgnoreCase(args[3]));
+        try (ColumnarFile file = ColumnarFile.open(Path.of(args[1]))) {
+            long start = System.nanoTime();
+            ScanResult scan = file.aggregate(filter, groupBy);
+            long micros = (System.nanoTime() - start) / 1_000;
+            System.out.printf("%-16s %12s %20s%n", groupBy == null ? "" : groupBy.name().toLowerCase(), "rows", "volume_usd");
+            scan.getGroups().entrySet().stream()
+                    .sorted((a, b) -> Long.compare(b.getValue().getSumCents(), a.getValue().getSumCents()))
+                    .forEach(e -> System.out.printf("%-16s %12d %20.2f%n",
+                            e.getKey(), e.getValue().getCount(), e.getValue().getVolumeUsd()));
+            System.out.printf("[ColumnarFile] %d of %d rows matched in %d us (%d blocks scanned, %d skipped)%n",
+                    scan.getRowsMatched(), file.getRowCount(), micros, scan.getBlocksScanned(), scan.getBlocksSkipped());
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Scan failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void runCoordinator(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java -jar etl-pipeline.jar --coordinator <input> <output_dir>");
+            System.exit(2);
+        }
+        int workers = Integer.getInteger("etl.workers", Runtime.getRuntime().availableProcessors());
+        long startTime = System.currentTimeMillis();
+        System.out.printf("[Coordinator] %d workers, input %s, output %s%n", workers, args[1], args[2]);
+        try {
+            new Coordinator(Path.of(args[2]), workers).run(args[1]);
+            long elapsed = System.currentTimeMillis() - startTime;
+            System.out.printf("Pipeline completed in %.2f seconds.%n", elapsed / 1000.0);
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Coordinator failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void runPartition(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java -jar etl-pipeline.jar --partition <input> <output_dir>");
+            System.exit(2);
+        }
+        int workers = Integer.getInteger("etl.workers", Runtime.getRuntime().availableProcessors());
+        Path outputDir = Path.of(args[2]);
+        try {
+            Partitioner partitioner = new Coordinator(outputDir, workers).partition(args[1]);
+            long[] rows = partitioner.getRowsPerShard();
+            System.out.println("[Coordinator] Run each shard (on any machine), then --merge " + outputDir + ":");
+            for (int shard = 0; shard < rows.length; shard++) {
+                if (rows[shard] == 0) continue;
+                StringBuilder cmd = new StringBuilder(" ");
+                for (String arg : Coordinator.workerCommand(partitioner.shardDir(shard), Coordinator.shardDb(outputDir, shard))) {
+                    // Quote the shard's input glob so the shell passes it through
+                    cmd.append(' ').append(arg.contains("*") ? "'" + arg + "'" : arg);
+                }
+                System.out.println(cmd);
+            }
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Partitioning failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void runMerge(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Usage: java -jar etl-pipeline.jar --merge <output_dir>");
+            System.exit(2);
+        }
+        try {
+            Coordinator coordinator = new Coordinator(Path.of(args[1]), 1);
+            coordinator.merge(Coordinator.partitionsDir(Path.of(args[1])), List.of());
+            new QualityReporter().writeMetrics(coordinator.getMetrics());
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Merge failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    private static void runDaemon(String[] args) {
+        if (args.length < 3) {
+            System.err.println("Usage: java -jar etl-pipeline.jar --daemon <inbox_dir> <output_db>");
+            System.exit(2);
+        }
+        try {
+            IngestDaemon daemon = new IngestDaemon(Path.of(args[1]), args[2],
+                    Long.getLong("etl.daemon.maxLatencyMs", 250),
+                    Integer.getInteger("etl.daemon.maxBatchRecords", 50_000));
+            Thread mainThread = Thread.currentThread();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                daemon.stop();
+                try {
+                    mainThread.join(5_000);
+                } catch (InterruptedException ignored) {}
+            }));
+            daemon.run();
+        } catch (Exception e) {
+            System.err.println("\n[FATAL] Daemon failed: " + e.getMessage());
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
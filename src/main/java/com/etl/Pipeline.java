@@ -0,0 +1,326 @@
+package com.etl;
+
+import com.etl.cleaner.DataCleaner;
+import com.etl.columnar.ColumnarWriter;
+import com.etl.external.ExternalSorter;
+import com.etl.external.RecordCodec;
+import com.etl.external.Sequenced;
+import com.etl.external.SortedDedup;
+import com.etl.external.TransactionCodec;
+import com.etl.governor.MemoryGovernor;
+import com.etl.loader.DatabaseLoader;
+import com.etl.metrics.MetricsRegistry;
+import com.etl.metrics.StageMetrics;
+import com.etl.model.ETLResult;
+import com.etl.model.Transaction;
+import com.etl.reader.RecordSource;
+import com.etl.reporter.QualityStats;
+import com.etl.transformer.DataTransformer;
+import com.etl.transformer.NearDuplicateDetector;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Clean, transform and load stages wired together with their metrics.
+ *
+ * The stage objects and the database loader (and therefore its connection)
+ * live as long as the pipeline, so a caller that processes many batches —
+ * the ingest daemon — keeps them warm between batches. Batch mode in
+ * {@link Main} simply runs it once, either over an in-memory list or, with a
+ * memory budget, through {@link #processExternal}.
+ */
+public class Pipeline implements AutoCloseable {
+
+    /** Records per loader call in external mode. */
+    static final int LOAD_CHUNK = 10_000;
+
+    /** Rejection reasons kept for the report in external mode (the count stays exact). */
+    static final int MAX_KEPT_REASONS = 1_000;
+
+    private static final RecordCodec<Sequenced<Transaction>> SPILL_CODEC =
+            RecordCodec.sequenced(TransactionCodec.INSTANCE);
+
+    private static final Comparator<Sequenced<Transaction>> BY_ID =
+            Comparator.comparing(s -> s.getValue().getTransactionId());
+
+    // Near-duplicates share date, customer and amount; input position keeps the first occurrence first.
+    private static final Comparator<Sequenced<Transaction>> BY_GROUP =
+            Comparator.<Sequenced<Transaction>, LocalDate>comparing(s -> s.getValue().getTransactionDate())
+                    .thenComparing(s -> s.getValue().getCustomerId())
+                    .thenComparingLong(s -> NearDuplicateDetector.amountCents(s.getValue()))
+                    .thenComparingLong(Sequenced::getSequence);
+
+    private final MetricsRegistry metrics;
+    private final DataCleaner cleaner = new DataCleaner();
+    private final DataTransformer transformer = new DataTransformer();
+    private final FusedStage cleanTransform = Stage.fuse(cleaner, transformer);
+    private final DatabaseLoader loader;
+    private final MemoryGovernor governor;
+    private final String nearDupMode = System.getProperty("etl.nearDuplicates", "flag");
+    private ColumnarWriter columnar;
+    private boolean verbose = true;
+
+    public Pipeline(String outputDb, MetricsRegistry metrics) {
+        this(outputDb, metrics, MemoryGovernor.fromSystemProperties());
+    }
+
+    /**
+     * The governor sizes the loader's commits and is published in {@code metrics}.
+     */
+    public Pipeline(String outputDb, MetricsRegistry metrics, MemoryGovernor governor) {
+        this.metrics = metrics;
+        this.governor = governor;
+        this.loader = new DatabaseLoader(outputDb);
+        this.loader.setMetrics(metrics.stage("loader"));
+        this.loader.setCommitSizer(governor.getCommitSizer());
+        governor.registerWith(metrics);
+    }
+
+    /**
+     * Runs stages 2-4 over already-extracted records and fills in the
+     * cleaned/rejected/flagged/loaded counts of {@code result}.
+     *
+     * @return the records that were loaded
+     */
+    public List<Transaction> process(List<Transaction> raw, ETLResult result) throws IOException, SQLException {
+        try {
+            return runInMemory(raw, result);
+        } catch (Exception e) {
+            abortColumnar(e);
+            throw e;
+        }
+    }
+
+    private List<Transaction> runInMemory(List<Transaction> raw, ETLResult result) throws IOException, SQLException {
+        // ── STAGES 2-3: CLEAN + TRANSFORM (one pass) ──────────
+        banner("\n[Stage 2-3/4] Cleaning, validating and transforming records...");
+        StageMetrics transformStage = metrics.stage("clean_transform");
+        transformStage.start();
+        StageCounters counters = new StageCounters();
+        transformer.reset();
+        List<Transaction> transformed = cleanTransform.run(raw, counters);
+        cleanTransform.recordTo(metrics, "cleaner", "transformer");
+        counters.applyTo(result);
+        System.out.printf("[Pipeline] Cleaned: %d | Rejected: %d%n",
+                counters.get(StageCounters.Counter.CLEANED), counters.get(StageCounters.Counter.REJECTED));
+        System.out.printf("[Pipeline] Transformed: %d | Flagged: %d | Duplicates removed: %d | Currency conversions: %d%n",
+                transformed.size(), counters.get(StageCounters.Counter.FLAGGED),
+                counters.get(StageCounters.Counter.DUPLICATES_REMOVED),
+                counters.get(StageCounters.Counter.CURRENCY_CONVERSIONS));
+
+        if (!"off".equalsIgnoreCase(nearDupMode)) {
+            NearDuplicateDetector detector = new NearDuplicateDetector(
+                    NearDuplicateDetector.Mode.valueOf(nearDupMode.toUpperCase()),
+                    Integer.getInteger("etl.nearDuplicates.partitionLimit",
+                            NearDuplicateDetector.DEFAULT_PARTITION_LIMIT));
+            StageMetrics nearDupStage = metrics.stage("near_duplicates");
+            nearDupStage.start();
+            int before = transformed.size();
+            transformed = detector.detect(transformed);
+            nearDupStage.stop(before, transformed.size());
+            result.setTotalFlagged(result.getTotalFlagged() + detector.getNewlyFlaggedCount());
+            result.setTotalSuspectedDuplicates(detector.getSuspectedCount());
+            result.setTotalQuarantined(detector.getQuarantinedCount());
+        }
+        transformStage.stop(raw.size(), transformed.size());
+
+        // ── STAGE 4: LOAD ─────────────────────────────────────
+        banner("\n[Stage 4/4] Loading to database...");
+        StageMetrics loadStage = metrics.stage("loader");
+        loadStage.start();
+        int loaded = loader.load(transformed);
+        if (columnar != null) {
+            columnar.write(transformed);
+        }
+        loadStage.stop(transformed.size(), loaded);
+        result.setTotalLoaded(loaded);
+
+        return transformed;
+    }
+
+    /**
+     * Runs extraction and stages 2-4 within a fixed memory budget, keeping
+     * only aggregates of the loaded records.
+     *
+     * Cleaned records go through external sorts that each get a third of the
+     * budget: by transaction ID, where duplicate IDs are adjacent and dropped
+     * while the runs are merged (then converted and flagged); by (date,
+     * customer, amount, input position), which groups near-duplicates together; and
+     * by ID again, so rows reach SQLite in primary-key order and its B-tree
+     * is appended to rather than split at random. Without near-duplicate
+     * detection the middle sort is skipped and the first feeds the loader.
+     *
+     * @return aggregates of the loaded records for the quality report
+     */
+    public QualityStats processExternal(RecordSource source, ETLResult result, long memoryBudgetBytes)
+            throws IOException, SQLException {
+        try {
+            return runExternal(source, result, memoryBudgetBytes);
+        } catch (Exception e) {
+            abortColumnar(e);
+            throw e;
+        }
+    }
+
+    private QualityStats runExternal(RecordSource source, ETLResult result, long memoryBudgetBytes)
+            throws IOException, SQLException {
+        banner(String.format("%n[Stage 1-3/4] Extracting, cleaning and transforming records (memory budget %d MB)...",
+                memoryBudgetBytes >> 20));
+        long sortBudget = memoryBudgetBytes / 3;
+        StageCounters counters = new StageCounters(MAX_KEPT_REASONS);
+        QualityStats stats = new QualityStats();
+        boolean nearDupOff = "off".equalsIgnoreCase(nearDupMode);
+        long[] read = {0};
+
+        try (ExternalSorter<Sequenced<Transaction>> byId = new ExternalSorter<>(SPILL_CODEC, BY_ID, sortBudget);
+             ExternalSorter<Sequenced<Transaction>> byGroup = new ExternalSorter<>(SPILL_CODEC, BY_GROUP, sortBudget);
+             ExternalSorter<Sequenced<Transaction>> byIdForLoad = new ExternalSorter<>(SPILL_CODEC, BY_ID, sortBudget)) {
+            byId.setGovernor(governor);
+            byGroup.setGovernor(governor);
+            byIdForLoad.setGovernor(governor);
+            governor.registerQueue("sort.byId", byId::getBufferedRecords);
+            governor.registerQueue("sort.byGroup", byGroup::getBufferedRecords);
+            governor.registerQueue("sort.byIdForLoad", byIdForLoad::getBufferedRecords);
+
+            StageMetrics transformStage = metrics.stage("clean_transform");
+            transformStage.start();
+            FusedStage clean = Stage.fuse(cleaner);
+            try {
+                source.forEach(t -> {
+                    long sequence = read[0]++;
+                    if (clean.process(t, counters)) {
+                        try {
+                            byId.add(new Sequenced<>(sequence, t));
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            result.setTotalRead((int) read[0]);
+            clean.recordTo(metrics, "cleaner");
+
+            FusedStage dedupAndEnrich = Stage.fuse(new SortedDedup(), transformer::enrich);
+            Stage beforeLoad = dedupAndEnrich;
+            Iterator<Sequenced<Transaction>> toLoad = byId.sorted();
+            if (!nearDupOff) {
+                for (Iterator<Sequenced<Transaction>> it = toLoad; it.hasNext(); ) {
+                    Sequenced<Transaction> s = it.next();
+                    if (dedupAndEnrich.process(s.getValue(), counters)) {
+                        byGroup.add(s);
+                    }
+                }
+                FusedStage detector = Stage.fuse(new NearDuplicateDetector(
+                        NearDuplicateDetector.Mode.valueOf(nearDupMode.toUpperCase()),
+                        NearDuplicateDetector.DEFAULT_PARTITION_LIMIT));
+                for (Iterator<Sequenced<Transaction>> it = byGroup.sorted(); it.hasNext(); ) {
+                    Sequenced<Transaction> s = it.next();
+                    if (detector.process(s.getValue(), counters)) {
+                        byIdForLoad.add(s);
+                    }
+                }
+                detector.recordTo(metrics, "near_duplicates");
+                toLoad = byIdForLoad.sorted();
+                beforeLoad = (t, c) -> true;
+            }
+            transformStage.stop(read[0], nearDupOff ? byId.getRecordsAdded() : byIdForLoad.getRecordsAdded());
+            System.out.printf("[Pipeline] Cleaned: %d | Rejected: %d%n",
+                    counters.get(StageCounters.Counter.CLEANED), counters.get(StageCounters.Counter.REJECTED));
+
+            // ── STAGE 4: LOAD (primary-key order) ─────────────────
+            banner("\n[Stage 4/4] Loading to database in transaction ID order...");
+            StageMetrics loadStage = metrics.stage("loader");
+            loadStage.start();
+            List<Transaction> chunk = new ArrayList<>(LOAD_CHUNK);
+            long offered = 0;
+            int loaded = 0;
+            while (toLoad.hasNext()) {
+                Transaction t = toLoad.next().getValue();
+                offered++;
+                if (!beforeLoad.process(t, counters)) {
+                    continue;
+                }
+                chunk.add(t);
+                stats.add(t);
+                if (chunk.size() == LOAD_CHUNK) {
+                    loaded += load(chunk);
+                    chunk.clear();
+                }
+            }
+            loaded += load(chunk);
+            loadStage.stop(offered, loaded);
+            dedupAndEnrich.recordTo(metrics, "dedup", "transformer");
+            result.setTotalLoaded(loaded);
+            System.out.printf("[Pipeline] Flagged: %d | Duplicates removed: %d | Currency conversions: %d%n",
+                    counters.get(StageCounters.Counter.FLAGGED),
+                    counters.get(StageCounters.Counter.DUPLICATES_REMOVED),
+                    counters.get(StageCounters.Counter.CURRENCY_CONVERSIONS));
+
+            System.out.printf("[Pipeline] External sort: %d runs spilled, %d merge passes%n",
+                    byId.getRunsSpilled() + byGroup.getRunsSpilled() + byIdForLoad.getRunsSpilled(),
+                    byId.getMergePasses() + byGroup.getMergePasses() + byIdForLoad.getMergePasses());
+        }
+
+        counters.applyTo(result);
+        return stats;
+    }
+
+    private int load(List<Transaction> chunk) throws IOException, SQLException {
+        int loaded = loader.load(chunk);
+        if (columnar != null) {
+            columnar.write(chunk);
+        }
+        return loaded;
+    }
+
+    /**
+     * A failed run must not publish a columnar file that looks complete.
+     */
+    private void abortColumnar(Exception cause) {
+        if (columnar == null) return;
+        try {
+            columnar.abort();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+        columnar = null;
+    }
+
+    private void banner(String text) {
+        if (verbose) System.out.println(text);
+    }
+
+    public DatabaseLoader getLoader() { return loader; }
+    public MetricsRegistry getMetrics() { return metrics; }
+    public MemoryGovernor getGovernor() { return governor; }
+
+    public void setVerbose(boolean verbose) { this.verbose = verbose; }
+
+    /**
+     * Also writes every loaded record to a columnar file for analytic scans;
+     * the file is completed when the pipeline is closed, or discarded if
+     * processing fails.
+     */
+    public void setColumnarExport(Path file) throws IOException {
+        this.columnar = new ColumnarWriter(file);
+    }
+
+    @Override
+    public void close() throws SQLException, IOException {
+        try {
+            loader.close();
+        } finally {
+            if (columnar != null) columnar.close();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.etl;
+
+import com.etl.model.Transaction;
+
+/**
+ * A per-record pipeline step (validate, normalize, convert, dedup, flag, ...).
+ *
+ * Stages see one record at a time and report what they did through the
+ * caller's {@link StageCounters}, so they hold no per-run counters of their
+ * own. Several stages can be fused with {@link #fuse} and run in a single
+ * traversal of the data: each record goes through every stage while it is
+ * still hot in cache, and a new stage costs a method call per record rather
+ * than another pass over the whole list.
+ */
+@FunctionalInterface
+public interface Stage {
+
+    /**
+     * Processes one record in place.
+     *
+     * @return true to pass the record downstream, false to drop it
+     */
+    boolean process(Transaction t, StageCounters counters);
+
+    static FusedStage fuse(Stage... stages) {
+        return new FusedStage(stages);
+    }
+}
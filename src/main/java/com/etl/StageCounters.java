@@ -0,0 +1,84 @@
+package com.etl;
+
+import com.etl.model.ETLResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Counters filled in by {@link Stage}s during a run.
+ *
+ * An instance is confined to one thread: concurrent workers each use their
+ * own and {@link #merge} them afterwards, then {@link #applyTo} an
+ * {@link ETLResult}.
+ */
+public final class StageCounters {
+
+    public enum Counter {
+        CLEANED,
+        REJECTED,
+        DUPLICATES_REMOVED,
+        CURRENCY_CONVERSIONS,
+        FLAGGED,
+        SUSPECTED_DUPLICATES,
+        QUARANTINED
+    }
+
+    private final long[] values = new long[Counter.values().length];
+    private final List<String> rejectedReasons = new ArrayList<>();
+    private final int maxReasons;
+
+    public StageCounters() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Keeps at most {@code maxReasons} rejection reasons; the REJECTED count stays exact.
+     */
+    public StageCounters(int maxReasons) {
+        this.maxReasons = maxReasons;
+    }
+
+    public void increment(Counter counter) {
+        values[counter.ordinal()]++;
+    }
+
+    public void reject(String reason) {
+        values[Counter.REJECTED.ordinal()]++;
+        if (rejectedReasons.size() < maxReasons) {
+            rejectedReasons.add(reason);
+        }
+    }
+
+    public long get(Counter counter) {
+        return values[counter.ordinal()];
+    }
+
+    public List<String> getRejectedReasons() {
+        return rejectedReasons;
+    }
+
+    public void merge(StageCounters other) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] += other.values[i];
+        }
+        for (String reason : other.rejectedReasons) {
+            if (rejectedReasons.size() >= maxReasons) break;
+            rejectedReasons.add(reason);
+        }
+    }
+
+    /**
+     * Adds these counts to the result's totals.
+     */
+    public void applyTo(ETLResult result) {
+        result.setTotalCleaned(result.getTotalCleaned() + (int) get(Counter.CLEANED));
+        result.setTotalRejected(result.getTotalRejected() + (int) get(Counter.REJECTED));
+        result.setTotalFlagged(result.getTotalFlagged() + (int) get(Counter.FLAGGED));
+        result.setTotalDuplicatesRemoved(result.getTotalDuplicatesRemoved() + (int) get(Counter.DUPLICATES_REMOVED));
+        result.setTotalCurrencyConversions(result.getTotalCurrencyConversions() + (int) get(Counter.CURRENCY_CONVERSIONS));
+        result.setTotalSuspectedDuplicates(result.getTotalSuspectedDuplicates() + (int) get(Counter.SUSPECTED_DUPLICATES));
+        result.setTotalQuarantined(result.getTotalQuarantined() + (int) get(Counter.QUARANTINED));
+        rejectedReasons.forEach(result::addRejectedRow);
+    }
+}
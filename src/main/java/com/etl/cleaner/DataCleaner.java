@@ -1,5 +1,8 @@
 package com.etl.cleaner;
 
+import com.etl.Stage;
+import com.etl.StageCounters;
+import com.etl.model.NoteCode;
 import com.etl.model.Transaction;
 
 import java.util.ArrayList;
@@ -10,8 +13,11 @@ import java.util.regex.Pattern;
  * Cleans and validates raw transaction records.
  * Rejects records that cannot be salvaged.
  * Fixes records where possible (phone normalization, name casing, etc.)
+ *
+ * As a {@link Stage} it validates and fixes one record at a time, so the
+ * pipeline can fuse it with the transformer into a single pass.
  */
-public class DataCleaner {
+public class DataCleaner implements Stage {
 
     private static final Pattern EMAIL_PATTERN =
             Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
@@ -24,63 +30,70 @@ public class DataCleaner {
 
     public List<Transaction> clean(List<Transaction> raw) {
         List<Transaction> cleaned = new ArrayList<>();
-        cleanedCount = 0;
-        rejectedCount = 0;
-        rejectedReasons.clear();
+        StageCounters counters = new StageCounters();
 
         for (Transaction t : raw) {
-            if (isRejectable(t)) {
-                rejectedCount++;
-                continue;
+            if (process(t, counters)) {
+                cleaned.add(t);
             }
-            applyFixes(t);
-            cleaned.add(t);
-            cleanedCount++;
         }
 
+        cleanedCount = (int) counters.get(StageCounters.Counter.CLEANED);
+        rejectedCount = (int) counters.get(StageCounters.Counter.REJECTED);
+        rejectedReasons.clear();
+        rejectedReasons.addAll(counters.getRejectedReasons());
+
         System.out.printf("[DataCleaner] Cleaned: %d | Rejected: %d%n", cleanedCount, rejectedCount);
         return cleaned;
     }
 
+    @Override
+    public boolean process(Transaction t, StageCounters counters) {
+        String reason = rejectionReason(t);
+        if (reason != null) {
+            counters.reject(reason);
+            return false;
+        }
+        applyFixes(t);
+        counters.increment(StageCounters.Counter.CLEANED);
+        return true;
+    }
+
     /**
      * Hard rejection rules — these records cannot be fixed.
+     *
+     * @return why the record is rejected, or null if it can be kept
      */
-    private boolean isRejectable(Transaction t) {
+    private String rejectionReason(Transaction t) {
         if (isBlank(t.getTransactionId())) {
-            rejectedReasons.add("Missing transaction ID: " + t);
-            return true;
+            return "Missing transaction ID: " + t;
         }
         if (isBlank(t.getCustomerId())) {
-            rejectedReasons.add("Missing customer ID: " + t.getTransactionId());
-            return true;
+            return "Missing customer ID: " + t.getTransactionId();
         }
         if (t.getAmount() <= 0) {
-            rejectedReasons.add("Non-positive amount for txn: " + t.getTransactionId());
-            return true;
+            return "Non-positive amount for txn: " + t.getTransactionId();
         }
         if (t.getTransactionDate() == null) {
-            rejectedReasons.add("Null date for txn: " + t.getTransactionId());
-            return true;
+            return "Null date for txn: " + t.getTransactionId();
         }
         if (!isValidEmail(t.getEmail())) {
-            rejectedReasons.add("Invalid email '" + t.getEmail() + "' for txn: " + t.getTransactionId());
-            return true;
+            return "Invalid email '" + t.getEmail() + "' for txn: " + t.getTransactionId();
         }
-        return false;
+        return null;
     }
 
     /**
      * Soft fixes — normalize and standardize valid records.
+     * Package-private for the JMH benchmarks.
      */
-    private void applyFixes(Transaction t) {
-        StringBuilder notes = new StringBuilder();
-
+    void applyFixes(Transaction t) {
         // Normalize name to Title Case
         String originalName = t.getFullName();
         String titledName = toTitleCase(originalName);
         if (!titledName.equals(originalName)) {
             t.setFullName(titledName);
-            notes.append("Name normalized; ");
+            t.addNote(NoteCode.NAME_NORMALIZED);
         }
 
         // Normalize phone: strip non-digits, ensure 10-digit US format
@@ -95,11 +108,11 @@ public class DataCleaner {
                     rawPhone.substring(6));
             if (!formattedPhone.equals(t.getPhone())) {
                 t.setPhone(formattedPhone);
-                notes.append("Phone normalized; ");
+                t.addNote(NoteCode.PHONE_NORMALIZED);
             }
         } else {
             t.setPhone("UNKNOWN");
-            notes.append("Phone unparseable, set to UNKNOWN; ");
+            t.addNote(NoteCode.PHONE_UNKNOWN);
         }
 
         // Normalize currency
@@ -113,10 +126,6 @@ public class DataCleaner {
 
         // Normalize email to lowercase
         t.setEmail(t.getEmail().toLowerCase().trim());
-
-        if (notes.length() > 0) {
-            t.setCleansingNotes(notes.toString().trim());
-        }
     }
 
     private boolean isBlank(String s) {
@@ -0,0 +1,225 @@
+package com.etl.cluster;
+
+import com.etl.generator.GeneratorConfig;
+import com.etl.generator.TransactionGenerator;
+import com.etl.metrics.MetricsRegistry;
+import com.etl.metrics.StageMetrics;
+import com.etl.model.ETLResult;
+import com.etl.model.FileStats;
+import com.etl.reader.InputFiles;
+import com.etl.reporter.QualityReporter;
+import com.etl.reporter.QualityStats;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Scales a run out over N worker processes.
+ *
+ * The input is hash-partitioned by customer ID into {@code <outputDir>/partitions/shard-NNN/};
+ * every non-empty shard is then processed by its own JVM running the normal
+ * pipeline ({@code Main --worker}) into {@code <outputDir>/shard-NNN.db}, and
+ * the workers' result files are merged into one quality report.
+ *
+ * The output directory must not hold an earlier run: stale shard inputs,
+ * results or databases would otherwise be picked up by the workers and the
+ * merge, so partitioning refuses to start until they are removed.
+ *
+ * Workers only share files, never memory, so the three phases can also be
+ * run separately ({@code --partition}, {@code --worker}, {@code --merge})
+ * with the shard directories copied to other machines in between.
+ */
+public class Coordinator {
+
+    public static final String RESULT_FILE = "result.properties";
+    public static final String WORKER_LOG = "worker.log";
+    private static final String GENERATOR_PREFIX = "gen:";
+
+    private final Path outputDir;
+    private final int workers;
+    private final MetricsRegistry metrics = new MetricsRegistry();
+
+    public Coordinator(Path outputDir, int workers) {
+        if (workers <= 0) {
+            throw new IllegalArgumentException("Worker count must be positive: " + workers);
+        }
+        this.outputDir = outputDir;
+        this.workers = workers;
+    }
+
+    public void run(String inputSpec) throws IOException, InterruptedException {
+        Partitioner partitioner = partition(inputSpec);
+        launchWorkers(partitioner);
+        merge(partitionsDir(outputDir), partitioner.getInputStats());
+        new QualityReporter().writeMetrics(metrics);
+    }
+
+    public static Path partitionsDir(Path outputDir) {
+        return outputDir.resolve("partitions");
+    }
+
+    public Partitioner partition(String inputSpec) throws IOException {
+        checkOutputIsFresh();
+        StageMetrics stage = metrics.stage("partition");
+        stage.start();
+        Partitioner partitioner = new Partitioner(partitionsDir(outputDir), workers);
+        if (inputSpec.startsWith(GENERATOR_PREFIX)) {
+            TransactionGenerator generator = new TransactionGenerator(
+                    GeneratorConfig.parse(inputSpec.substring(GENERATOR_PREFIX.length())));
+            partitioner.partition(new InputStreamReader(generator.openStream(), StandardCharsets.UTF_8), inputSpec, 0);
+        } else {
+            for (Path file : InputFiles.resolve(inputSpec)) {
+                partitioner.partition(InputFiles.openReader(file), file.toString(), Files.size(file));
+            }
+        }
+        long[] rows = partitioner.getRowsPerShard();
+        long total = 0;
+        for (long r : rows) total += r;
+        partitioner.writeManifest();
+        stage.stop(total, total);
+        System.out.printf("[Coordinator] Partitioned %d rows into %d shards by customer_id%n", total, workers);
+        return partitioner;
+    }
+
+    private void checkOutputIsFresh() throws IOException {
+        Path partitions = partitionsDir(outputDir);
+        if (Files.isDirectory(partitions)) {
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(partitions)) {
+                if (entries.iterator().hasNext()) {
+                    throw new IOException("Output directory holds an earlier run (" + partitions
+                            + " is not empty); remove it or choose another output directory");
+                }
+            }
+        }
+        if (Files.isDirectory(outputDir)) {
+            try (DirectoryStream<Path> shards = Files.newDirectoryStream(outputDir, "shard-*.{db,etlc}")) {
+                if (shards.iterator().hasNext()) {
+                    throw new IOException("Output directory holds shard databases of an earlier run ("
+                            + outputDir + "); remove them or choose another output directory");
+                }
+            }
+        }
+    }
+
+    /**
+     * Starts one worker per non-empty shard and waits for all of them.
+     */
+    public void launchWorkers(Partitioner partitioner) throws IOException, InterruptedException {
+        StageMetrics stage = metrics.stage("workers");
+        stage.start();
+        long[] rows = partitioner.getRowsPerShard();
+        Map<Integer, Process> running = new TreeMap<>();
+        for (int shard = 0; shard < workers; shard++) {
+            if (rows[shard] == 0) continue;
+            Path dir = partitioner.shardDir(shard);
+            ProcessBuilder pb = new ProcessBuilder(workerCommand(dir, shardDb(outputDir, shard)));
+            pb.directory(dir.toFile());
+            pb.redirectErrorStream(true);
+            pb.redirectOutput(dir.resolve(WORKER_LOG).toFile());
+            running.put(shard, pb.start());
+        }
+        System.out.printf("[Coordinator] Started %d workers%n", running.size());
+
+        List<String> failed = new ArrayList<>();
+        for (Map.Entry<Integer, Process> e : running.entrySet()) {
+            int exit = e.getValue().waitFor();
+            if (exit != 0) {
+                failed.add(String.format("shard-%03d (exit %d)", e.getKey(), exit));
+            }
+        }
+        long total = 0;
+        for (long r : rows) total += r;
+        stage.stop(total, total);
+        if (!failed.isEmpty()) {
+            throw new IOException("Workers failed: " + String.join(", ", failed)
+                    + " — see " + WORKER_LOG + " in the shard directories");
+        }
+    }
+
+    /**
+     * The command that runs one shard; also printed by --partition for running it elsewhere.
+     */
+    public static List<String> workerCommand(Path shardDir, Path shardDb) {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        String jvmArgs = System.getProperty("etl.worker.jvmArgs", "").trim();
+        if (!jvmArgs.isEmpty()) {
+            cmd.addAll(List.of(jvmArgs.split("\\s+")));
+        }
+        // Workers run with the coordinator's pipeline settings
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("etl.") && !name.equals("etl.workers") && !name.equals("etl.worker.jvmArgs")
+                    && !name.equals("etl.columnarExport")) {
+                cmd.add("-D" + name + "=" + System.getProperty(name));
+            }
+        }
+        if (System.getProperty("etl.columnarExport") != null) {
+            // One columnar file per shard, next to its database
+            String db = shardDb.toAbsolutePath().toString();
+            cmd.add("-Detl.columnarExport=" + db.substring(0, db.length() - ".db".length()) + ".etlc");
+        }
+        if (System.getProperty("etl.readerThreads") == null) {
+            int workers = Integer.getInteger("etl.workers", Runtime.getRuntime().availableProcessors());
+            cmd.add("-Detl.readerThreads=" + Math.max(1, Runtime.getRuntime().availableProcessors() / workers));
+        }
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add("com.etl.Main");
+        cmd.add("--worker");
+        cmd.add(shardDir.toAbsolutePath().resolve("input-*.csv").toString());
+        cmd.add(shardDb.toAbsolutePath().toString());
+        cmd.add(shardDir.toAbsolutePath().resolve(RESULT_FILE).toString());
+        return cmd;
+    }
+
+    public static Path shardDb(Path outputDir, int shard) {
+        return outputDir.resolve(String.format("shard-%03d.db", shard));
+    }
+
+    /**
+     * Merges the result.properties of every shard in the partition manifest
+     * and prints the combined quality report.
+     */
+    public ResultFile merge(Path partitionsDir, List<FileStats> inputStats) throws IOException {
+        ResultFile merged = mergeResults(partitionsDir, inputStats);
+        new QualityReporter().printReport(merged.getResult(), merged.getStats());
+        return merged;
+    }
+
+    ResultFile mergeResults(Path partitionsDir, List<FileStats> inputStats) throws IOException {
+        StageMetrics stage = metrics.stage("merge");
+        stage.start();
+        ETLResult result = new ETLResult();
+        QualityStats stats = new QualityStats();
+        int shards = 0;
+        for (Path dir : Partitioner.readManifest(partitionsDir)) {
+            Path file = dir.resolve(RESULT_FILE);
+            if (!Files.isRegularFile(file)) {
+                throw new IOException("Missing worker result: " + file);
+            }
+            ResultFile shard = ResultFile.read(file);
+            System.out.printf("[Coordinator] %s: read %d | rejected %d | loaded %d | flagged %d%n",
+                    dir.getFileName(), shard.getResult().getTotalRead(), shard.getResult().getTotalRejected(),
+                    shard.getResult().getTotalLoaded(), shard.getResult().getTotalFlagged());
+            result.merge(shard.getResult());
+            stats.merge(shard.getStats());
+            shards++;
+        }
+        if (shards == 0) {
+            throw new IOException("No shard results under " + partitionsDir);
+        }
+        inputStats.forEach(result::addFileStats);
+        stage.stop(result.getTotalRead(), result.getTotalLoaded());
+        return new ResultFile(result, stats);
+    }
+
+    public MetricsRegistry getMetrics() { return metrics; }
+}
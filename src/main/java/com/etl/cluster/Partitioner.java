@@ -0,0 +1,141 @@
+package com.etl.cluster;
+
+import com.etl.model.FileStats;
+import com.etl.reader.ColumnPlan;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits CSV input into N shards by a hash of the customer ID, so every row
+ * of a customer — and with it all per-customer state such as duplicate and
+ * near-duplicate detection — ends up in the same shard.
+ *
+ * Rows are routed as raw text: only the customer column is located, the
+ * rest of the row is copied untouched, and malformed rows are passed on for
+ * the worker to count and skip. Each input gets its own file in every shard
+ * directory ({@code shard-NNN/input-NNNN.csv}) under its original header, so
+ * inputs with different column orders can be mixed.
+ *
+ * {@link #writeManifest()} records which shards this run filled
+ * ({@code partitions/shards.txt}); the merge reads that list rather than
+ * whatever shard directories happen to exist.
+ */
+public class Partitioner {
+
+    public static final String MANIFEST = "shards.txt";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final int partitions;
+    private final long[] rowsPerShard;
+    private final List<FileStats> inputStats = new ArrayList<>();
+    private int inputs = 0;
+
+    public Partitioner(Path root, int partitions) {
+        if (partitions <= 0) {
+            throw new IllegalArgumentException("Partition count must be positive: " + partitions);
+        }
+        this.root = root;
+        this.partitions = partitions;
+        this.rowsPerShard = new long[partitions];
+    }
+
+    /**
+     * Stable across JVMs and machines: String.hashCode is specified by the language.
+     */
+    public static int shardOf(String customerId, int partitions) {
+        return Math.floorMod(customerId == null ? 0 : customerId.hashCode(), partitions);
+    }
+
+    public Path shardDir(int shard) {
+        return root.resolve(String.format("shard-%03d", shard));
+    }
+
+    /**
+     * Routes one CSV source (header line first) into the shards; closes the source.
+     */
+    public void partition(Reader source, String sourceName, long bytesOnDisk) throws IOException {
+        long start = System.nanoTime();
+        int input = inputs++;
+        BufferedWriter[] writers = new BufferedWriter[partitions];
+        long rows = 0;
+
+        try (BufferedReader br = new BufferedReader(source, BUFFER_SIZE)) {
+            String header = br.readLine();
+            if (header == null) {
+                throw new IOException("CSV file is empty: " + sourceName);
+            }
+            ColumnPlan plan;
+            try {
+                plan = ColumnPlan.compile(header);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unusable CSV header in " + sourceName + ": " + e.getMessage(), e);
+            }
+
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.trim().isEmpty()) continue;
+                int shard = shardOf(plan.customerId(line), partitions);
+                if (writers[shard] == null) {
+                    Path dir = Files.createDirectories(shardDir(shard));
+                    writers[shard] = Files.newBufferedWriter(
+                            dir.resolve(String.format("input-%04d.csv", input)), StandardCharsets.UTF_8);
+                    writers[shard].write(header);
+                    writers[shard].newLine();
+                }
+                writers[shard].write(line);
+                writers[shard].newLine();
+                rowsPerShard[shard]++;
+                rows++;
+            }
+        } finally {
+            for (BufferedWriter w : writers) {
+                if (w != null) w.close();
+            }
+        }
+
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        inputStats.add(new FileStats(sourceName, bytesOnDisk, (int) rows, 0, millis));
+    }
+
+    /**
+     * Writes the names of the non-empty shard directories, one per line.
+     */
+    public void writeManifest() throws IOException {
+        List<String> shards = new ArrayList<>();
+        for (int shard = 0; shard < partitions; shard++) {
+            if (rowsPerShard[shard] > 0) {
+                shards.add(shardDir(shard).getFileName().toString());
+            }
+        }
+        Files.createDirectories(root);
+        Files.write(root.resolve(MANIFEST), shards, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * The shard directories listed in the manifest under root, in order.
+     */
+    public static List<Path> readManifest(Path root) throws IOException {
+        Path manifest = root.resolve(MANIFEST);
+        if (!Files.isRegularFile(manifest)) {
+            throw new IOException("No partition manifest: " + manifest);
+        }
+        List<Path> dirs = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) dirs.add(root.resolve(line.trim()));
+        }
+        return dirs;
+    }
+
+    public long[] getRowsPerShard() { return rowsPerShard.clone(); }
+    public List<FileStats> getInputStats() { return inputStats; }
+}
@@ -0,0 +1,92 @@
+package com.etl.cluster;
+
+import com.etl.model.ETLResult;
+import com.etl.reporter.QualityStats;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * A worker's {@link ETLResult} and {@link QualityStats}, stored as a plain
+ * properties file so the coordinator (or anyone copying it off another
+ * machine) can read and merge it.
+ */
+public final class ResultFile {
+
+    /** Rejection reasons kept per shard; the count stays exact. */
+    static final int MAX_REJECTED_ROWS = 1_000;
+
+    private final ETLResult result;
+    private final QualityStats stats;
+
+    public ResultFile(ETLResult result, QualityStats stats) {
+        this.result = result;
+        this.stats = stats;
+    }
+
+    public ETLResult getResult() { return result; }
+    public QualityStats getStats() { return stats; }
+
+    public void write(Path file) throws IOException {
+        Properties props = new Properties();
+        props.setProperty("totalRead", Integer.toString(result.getTotalRead()));
+        props.setProperty("totalCleaned", Integer.toString(result.getTotalCleaned()));
+        props.setProperty("totalRejected", Integer.toString(result.getTotalRejected()));
+        props.setProperty("totalLoaded", Integer.toString(result.getTotalLoaded()));
+        props.setProperty("totalFlagged", Integer.toString(result.getTotalFlagged()));
+        props.setProperty("totalSuspectedDuplicates", Integer.toString(result.getTotalSuspectedDuplicates()));
+        props.setProperty("totalQuarantined", Integer.toString(result.getTotalQuarantined()));
+        props.setProperty("totalDuplicatesRemoved", Integer.toString(result.getTotalDuplicatesRemoved()));
+        props.setProperty("totalCurrencyConversions", Integer.toString(result.getTotalCurrencyConversions()));
+        int rows = Math.min(result.getRejectedRows().size(), MAX_REJECTED_ROWS);
+        for (int i = 0; i < rows; i++) {
+            props.setProperty("rejected." + i, result.getRejectedRows().get(i));
+        }
+        for (int i = 0; i < result.getWarnings().size(); i++) {
+            props.setProperty("warning." + i, result.getWarnings().get(i));
+        }
+        stats.writeTo(props, "stats.");
+
+        // Write then rename, so a coordinator polling for results never sees half a file
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            props.store(out, "ETL shard result");
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static ResultFile read(Path file) throws IOException {
+        Properties props = new Properties();
+        try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            props.load(in);
+        }
+        ETLResult result = new ETLResult();
+        result.setTotalRead(intProperty(props, "totalRead"));
+        result.setTotalCleaned(intProperty(props, "totalCleaned"));
+        result.setTotalRejected(intProperty(props, "totalRejected"));
+        result.setTotalLoaded(intProperty(props, "totalLoaded"));
+        result.setTotalFlagged(intProperty(props, "totalFlagged"));
+        result.setTotalSuspectedDuplicates(intProperty(props, "totalSuspectedDuplicates"));
+        result.setTotalQuarantined(intProperty(props, "totalQuarantined"));
+        result.setTotalDuplicatesRemoved(intProperty(props, "totalDuplicatesRemoved"));
+        result.setTotalCurrencyConversions(intProperty(props, "totalCurrencyConversions"));
+        for (int i = 0; props.containsKey("rejected." + i); i++) {
+            result.addRejectedRow(props.getProperty("rejected." + i));
+        }
+        for (int i = 0; props.containsKey("warning." + i); i++) {
+            result.addWarning(props.getProperty("warning." + i));
+        }
+        return new ResultFile(result, QualityStats.readFrom(props, "stats."));
+    }
+
+    private static int intProperty(Properties props, String key) {
+        return Integer.parseInt(props.getProperty(key, "0"));
+    }
+}
@@ -0,0 +1,295 @@
+package com.etl.columnar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Read side of the columnar export: blocks are memory-mapped and scanned in
+ * place, without decoding rows into objects.
+ *
+ * A scan first checks each block's statistics against the filter (date
+ * range, minimum amount, flagged rows present) and skips blocks that cannot
+ * match; the remaining blocks are scanned in parallel, touching only the
+ * columns the filter and grouping need, and totals are accumulated in
+ * arrays indexed by dictionary code.
+ *
+ * <pre>
+ *   ColumnarFilter flagged = new ColumnarFilter();
+ *   flagged.setFlaggedOnly(true);
+ *   ScanResult volume = file.aggregate(flagged, Dimension.COUNTRY);
+ * </pre>
+ */
+public class ColumnarFile implements AutoCloseable {
+
+    /** Dictionary-encoded columns a scan can group or filter by. */
+    public enum Dimension { COUNTRY, TYPE, CURRENCY }
+
+    private static final int ANY = -1;
+    private static final int NO_MATCH = -2;
+
+    private final Path file;
+    private final FileChannel channel;
+    private final List<List<String>> dictionaries = new ArrayList<>();
+    private final List<Block> blocks = new ArrayList<>();
+    private long rowCount = 0;
+
+    private ColumnarFile(Path file, FileChannel channel) {
+        this.file = file;
+        this.channel = channel;
+    }
+
+    public static ColumnarFile open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            ColumnarFile columnar = new ColumnarFile(file, channel);
+            columnar.readIndex();
+            return columnar;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void readIndex() throws IOException {
+        long size = channel.size();
+        if (size < ColumnarFormat.HEADER_BYTES + ColumnarFormat.TRAILER_BYTES) {
+            throw new IOException("Not a columnar export (too short): " + file);
+        }
+        ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, ColumnarFormat.HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - ColumnarFormat.TRAILER_BYTES,
+                ColumnarFormat.TRAILER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (header.getInt(0) != ColumnarFormat.MAGIC || trailer.getInt(8) != ColumnarFormat.MAGIC) {
+            throw new IOException("Not a columnar export: " + file);
+        }
+        if (header.getInt(4) != ColumnarFormat.VERSION) {
+            throw new IOException("Unsupported columnar version " + header.getInt(4) + ": " + file);
+        }
+
+        long footerOffset = trailer.getLong(0);
+        ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset,
+                size - ColumnarFormat.TRAILER_BYTES - footerOffset).order(ByteOrder.LITTLE_ENDIAN);
+        for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+            int entries = footer.getInt();
+            List<String> values = new ArrayList<>(entries);
+            for (int e = 0; e < entries; e++) {
+                byte[] bytes = new byte[footer.getInt()];
+                footer.get(bytes);
+                values.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+            dictionaries.add(Collections.unmodifiableList(values));
+        }
+
+        int blockCount = footer.getInt();
+        long[][] entries = new long[blockCount][ColumnarFormat.INDEX_ENTRY_LONGS];
+        for (long[] entry : entries) {
+            for (int i = 0; i < entry.length; i++) entry[i] = footer.getLong();
+        }
+        for (int b = 0; b < blockCount; b++) {
+            long end = b + 1 < blockCount ? entries[b + 1][0] : footerOffset;
+            MappedByteBuffer data = channel.map(FileChannel.MapMode.READ_ONLY, entries[b][0], end - entries[b][0]);
+            blocks.add(new Block(entries[b], data));
+            rowCount += entries[b][1];
+        }
+    }
+
+    /**
+     * Sums amounts of the rows matching {@code filter}, grouped by
+     * {@code groupBy} (or into a single "ALL" group when null).
+     */
+    public ScanResult aggregate(ColumnarFilter filter, Dimension groupBy) {
+        int countryCode = filterCode(Dimension.COUNTRY, filter.getCountry());
+        int typeCode = filterCode(Dimension.TYPE, filter.getTransactionType());
+        int groups = groupBy == null ? 1 : Math.max(1, dictionaries.get(groupBy.ordinal()).size());
+        if (countryCode == NO_MATCH || typeCode == NO_MATCH) {
+            return new ScanResult(Map.of(), 0, blocks.size(), 0);
+        }
+
+        Scan scan = new Scan(filter, countryCode, typeCode, groupBy);
+        Totals totals = IntStream.range(0, blocks.size()).parallel()
+                .collect(() -> new Totals(groups), (t, b) -> scan.run(blocks.get(b), t), Totals::merge);
+
+        Map<String, ScanResult.Group> result = new LinkedHashMap<>();
+        for (int g = 0; g < groups; g++) {
+            if (totals.count[g] == 0) continue;
+            String key = groupBy == null ? "ALL" : dictionaries.get(groupBy.ordinal()).get(g);
+            result.put(key, new ScanResult.Group(totals.count[g], totals.sum[g], totals.max[g]));
+        }
+        return new ScanResult(result, totals.scanned, totals.skipped, totals.matched);
+    }
+
+    private int filterCode(Dimension dimension, String value) {
+        if (value == null) return ANY;
+        int code = dictionaries.get(dimension.ordinal()).indexOf(value);
+        return code < 0 ? NO_MATCH : code;
+    }
+
+    public List<String> dictionary(Dimension dimension) { return dictionaries.get(dimension.ordinal()); }
+    public long getRowCount() { return rowCount; }
+    public int getBlockCount() { return blocks.size(); }
+    public Path getFile() { return file; }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * One mapped block with its statistics and column offsets.
+     */
+    private static final class Block {
+        final ByteBuffer data;
+        final int rows;
+        final int dayWidth;
+        final int[] codeWidth = new int[ColumnarFormat.DICTIONARIES];
+        final int minDay, maxDay;
+        final long minCents, maxCents;
+        final long flaggedRows;
+        final int flagsUnion;
+        final int daysAt;
+        final int[] codesAt = new int[ColumnarFormat.DICTIONARIES];
+        final int flagsAt;
+
+        Block(long[] entry, MappedByteBuffer data) {
+            this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+            this.rows = (int) entry[1];
+            long widths = entry[2];
+            this.dayWidth = (int) (widths & 0xFF);
+            for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+                codeWidth[d] = (int) ((widths >>> (8 * (d + 1))) & 0xFF);
+            }
+            this.minDay = (int) entry[3];
+            this.maxDay = (int) entry[4];
+            this.minCents = entry[5];
+            this.maxCents = entry[6];
+            this.flaggedRows = entry[7];
+            this.flagsUnion = (int) entry[8];
+
+            int at = rows * 8;
+            this.daysAt = at;
+            at += rows * dayWidth;
+            for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+                codesAt[d] = at;
+                at += rows * codeWidth[d];
+            }
+            this.flagsAt = at;
+        }
+
+        int code(int dictionary, int row) {
+            return codeWidth[dictionary] == 1
+                    ? data.get(codesAt[dictionary] + row) & 0xFF
+                    : data.getShort(codesAt[dictionary] + 2 * row) & 0xFFFF;
+        }
+
+        int dayOffset(int row) {
+            return dayWidth == 2 ? data.getShort(daysAt + 2 * row) & 0xFFFF : data.getInt(daysAt + 4 * row);
+        }
+    }
+
+    /**
+     * A filter resolved against the dictionaries, applied block by block.
+     */
+    private static final class Scan {
+        final boolean flaggedOnly;
+        final int flagMask;
+        final long fromDay, toDay;
+        final boolean dayFilter;
+        final long minCents;
+        final int countryCode, typeCode;
+        final int groupBy;
+
+        Scan(ColumnarFilter filter, int countryCode, int typeCode, Dimension groupBy) {
+            this.flaggedOnly = filter.isFlaggedOnly();
+            this.flagMask = filter.getAmlFlag() == null ? 0 : filter.getAmlFlag().bit() << 1;
+            this.fromDay = filter.getFrom() == null ? Long.MIN_VALUE : filter.getFrom().toEpochDay();
+            this.toDay = filter.getTo() == null ? Long.MAX_VALUE : filter.getTo().toEpochDay();
+            this.dayFilter = filter.getFrom() != null || filter.getTo() != null;
+            this.minCents = filter.getMinAmountUsd() == null ? Long.MIN_VALUE
+                    : (long) Math.ceil(filter.getMinAmountUsd() * 100.0 - 1e-6);
+            this.countryCode = countryCode;
+            this.typeCode = typeCode;
+            this.groupBy = groupBy == null ? ANY : groupBy.ordinal();
+        }
+
+        boolean skips(Block b) {
+            return b.maxDay < fromDay || b.minDay > toDay
+                    || b.maxCents < minCents
+                    || (flaggedOnly && b.flaggedRows == 0)
+                    || (b.flagsUnion & flagMask) != flagMask;
+        }
+
+        void run(Block b, Totals totals) {
+            if (skips(b)) {
+                totals.skipped++;
+                return;
+            }
+            totals.scanned++;
+            ByteBuffer data = b.data;
+            // Day bounds relative to the block minimum, as stored; clamped before
+            // subtracting so an open bound (Long.MIN/MAX_VALUE) cannot overflow
+            long lo = fromDay > b.minDay ? fromDay - b.minDay : 0;
+            long hi = toDay < b.minDay + (long) Integer.MAX_VALUE ? toDay - b.minDay : Integer.MAX_VALUE;
+            boolean checkDay = dayFilter && (b.minDay < fromDay || b.maxDay > toDay);
+            boolean checkCents = b.minCents < minCents;
+            int requiredFlags = (flaggedOnly ? 1 : 0) | flagMask;
+
+            for (int i = 0; i < b.rows; i++) {
+                if (requiredFlags != 0 && (data.get(b.flagsAt + i) & requiredFlags) != requiredFlags) continue;
+                if (checkDay) {
+                    int day = b.dayOffset(i);
+                    if (day < lo || day > hi) continue;
+                }
+                if (countryCode != ANY && b.code(0, i) != countryCode) continue;
+                if (typeCode != ANY && b.code(1, i) != typeCode) continue;
+                long cents = data.getLong(8 * i);
+                if (checkCents && cents < minCents) continue;
+
+                int g = groupBy == ANY ? 0 : b.code(groupBy, i);
+                totals.count[g]++;
+                totals.sum[g] += cents;
+                if (cents > totals.max[g]) totals.max[g] = cents;
+                totals.matched++;
+            }
+        }
+    }
+
+    private static final class Totals {
+        final long[] count;
+        final long[] sum;
+        final long[] max;
+        long matched;
+        int scanned;
+        int skipped;
+
+        Totals(int groups) {
+            count = new long[groups];
+            sum = new long[groups];
+            max = new long[groups];
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        void merge(Totals other) {
+            for (int g = 0; g < count.length; g++) {
+                count[g] += other.count[g];
+                sum[g] += other.sum[g];
+                max[g] = Math.max(max[g], other.max[g]);
+            }
+            matched += other.matched;
+            scanned += other.scanned;
+            skipped += other.skipped;
+        }
+    }
+}
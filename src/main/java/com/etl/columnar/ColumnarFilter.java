@@ -0,0 +1,41 @@
+package com.etl.columnar;
+
+import com.etl.model.AmlFlag;
+
+import java.time.LocalDate;
+
+/**
+ * Row predicate for a {@link ColumnarFile} scan. Unset fields match every
+ * row; set fields are ANDed. Date bounds are inclusive.
+ */
+public class ColumnarFilter {
+
+    private LocalDate from;
+    private LocalDate to;
+    private boolean flaggedOnly;
+    private AmlFlag amlFlag;
+    private String country;
+    private String transactionType;
+    private Double minAmountUsd;
+
+    public LocalDate getFrom() { return from; }
+    public void setFrom(LocalDate from) { this.from = from; }
+
+    public LocalDate getTo() { return to; }
+    public void setTo(LocalDate to) { this.to = to; }
+
+    public boolean isFlaggedOnly() { return flaggedOnly; }
+    public void setFlaggedOnly(boolean flaggedOnly) { this.flaggedOnly = flaggedOnly; }
+
+    public AmlFlag getAmlFlag() { return amlFlag; }
+    public void setAmlFlag(AmlFlag amlFlag) { this.amlFlag = amlFlag; }
+
+    public String getCountry() { return country; }
+    public void setCountry(String country) { this.country = country; }
+
+    public String getTransactionType() { return transactionType; }
+    public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
+
+    public Double getMinAmountUsd() { return minAmountUsd; }
+    public void setMinAmountUsd(Double minAmountUsd) { this.minAmountUsd = minAmountUsd; }
+}
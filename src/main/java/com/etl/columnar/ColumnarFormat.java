@@ -0,0 +1,42 @@
+package com.etl.columnar;
+
+/**
+ * On-disk layout shared by {@link ColumnarWriter} and {@link ColumnarFile}.
+ *
+ * <pre>
+ *   header   magic "ETLC", version, 8 bytes in total
+ *   blocks   per block, each column stored contiguously:
+ *              amount_cents  int64 x rows
+ *              epoch_day     uint16 or int32 x rows, minus the block's min day
+ *              country       dictionary code, uint8 or uint16 x rows
+ *              type          dictionary code, uint8 or uint16 x rows
+ *              currency      dictionary code, uint8 or uint16 x rows
+ *              flags         uint8 x rows: bit 0 flagged, bits 1-7 aml_flags
+ *            padded to 8 bytes
+ *   footer   dictionaries, then one index entry per block (offset, rows,
+ *            column widths, min/max day, min/max cents, flagged rows,
+ *            OR of all flag bytes)
+ *   trailer  footer offset (int64), magic
+ * </pre>
+ *
+ * All values are little-endian, so a mapped block is read in place.
+ */
+final class ColumnarFormat {
+
+    static final int MAGIC = 0x43_4C_54_45; // "ETLC" little-endian
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 8;
+    static final int TRAILER_BYTES = 12;
+
+    /** Dictionary-encoded columns, in file order. */
+    static final int DICTIONARIES = 3;
+
+    /** Longs per block index entry. */
+    static final int INDEX_ENTRY_LONGS = 9;
+
+    private ColumnarFormat() {}
+
+    static int align8(long n) {
+        return (int) ((8 - (n & 7)) & 7);
+    }
+}
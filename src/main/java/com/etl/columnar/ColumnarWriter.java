@@ -0,0 +1,234 @@
+package com.etl.columnar;
+
+import com.etl.model.Transaction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes loaded transactions as a column-oriented binary file for analytic
+ * scans (see {@link ColumnarFile}), next to the SQLite load.
+ *
+ * Only the columns aggregates are run over are kept: amount in integer USD
+ * cents, the date as epoch days stored relative to the block minimum,
+ * country / type / original currency as dictionary codes, and the review
+ * and AML flags packed into one byte. Rows are buffered into blocks of
+ * {@link #DEFAULT_BLOCK_ROWS}; each block records min/max day and amount and
+ * its flagged-row count so scans can skip it.
+ *
+ * The file is written under a temporary name and renamed on close, so a
+ * reader never sees a partial file. A writer whose input failed midway is
+ * {@link #abort() aborted} instead, which deletes the temporary file.
+ */
+public class ColumnarWriter implements AutoCloseable {
+
+    public static final int DEFAULT_BLOCK_ROWS = 65_536;
+
+    private final Path file;
+    private final Path tmp;
+    private final int blockRows;
+    private final FileChannel channel;
+
+    private final long[] cents;
+    private final int[] days;
+    private final int[][] codes;
+    private final byte[] flags;
+    private int buffered = 0;
+
+    private final List<Map<String, Integer>> dictionaryCodes = new ArrayList<>(ColumnarFormat.DICTIONARIES);
+    private final List<List<String>> dictionaries = new ArrayList<>(ColumnarFormat.DICTIONARIES);
+
+    private final List<long[]> blockIndex = new ArrayList<>();
+    private ByteBuffer out;
+    private long position;
+    private long rowsWritten = 0;
+    private boolean closed = false;
+
+    public ColumnarWriter(Path file) throws IOException {
+        this(file, DEFAULT_BLOCK_ROWS);
+    }
+
+    public ColumnarWriter(Path file, int blockRows) throws IOException {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockRows);
+        }
+        this.file = file;
+        this.tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        this.blockRows = blockRows;
+        this.cents = new long[blockRows];
+        this.days = new int[blockRows];
+        this.codes = new int[ColumnarFormat.DICTIONARIES][blockRows];
+        this.flags = new byte[blockRows];
+        for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+            dictionaryCodes.add(new HashMap<>());
+            dictionaries.add(new ArrayList<>());
+        }
+        this.out = ByteBuffer.allocate(blockRows * 20 + 64).order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        out.putInt(ColumnarFormat.MAGIC).putInt(ColumnarFormat.VERSION);
+        drain();
+    }
+
+    public void write(List<Transaction> transactions) throws IOException {
+        for (Transaction t : transactions) {
+            add(t);
+        }
+    }
+
+    public void add(Transaction t) throws IOException {
+        int i = buffered;
+        cents[i] = Math.round(t.getAmount() * 100.0);
+        days[i] = (int) t.getTransactionDate().toEpochDay();
+        codes[0][i] = code(0, t.getCountry());
+        codes[1][i] = code(1, t.getTransactionType());
+        codes[2][i] = code(2, t.getSourceCurrency() != null ? t.getSourceCurrency() : t.getCurrency());
+        flags[i] = (byte) ((t.getAmlFlags() << 1) | (t.isFlaggedForReview() ? 1 : 0));
+        if (++buffered == blockRows) {
+            flushBlock();
+        }
+    }
+
+    private int code(int dictionary, String value) {
+        String key = value == null ? "" : value;
+        Integer code = dictionaryCodes.get(dictionary).get(key);
+        if (code == null) {
+            code = dictionaries.get(dictionary).size();
+            if (code > 0xFFFF) {
+                throw new IllegalStateException("Too many distinct values for a dictionary column: " + key);
+            }
+            dictionaryCodes.get(dictionary).put(key, code);
+            dictionaries.get(dictionary).add(key);
+        }
+        return code;
+    }
+
+    private void flushBlock() throws IOException {
+        int rows = buffered;
+        if (rows == 0) return;
+
+        long minCents = Long.MAX_VALUE, maxCents = Long.MIN_VALUE;
+        int minDay = Integer.MAX_VALUE, maxDay = Integer.MIN_VALUE;
+        int flagged = 0;
+        int flagsUnion = 0;
+        int[] maxCode = new int[ColumnarFormat.DICTIONARIES];
+        for (int i = 0; i < rows; i++) {
+            minCents = Math.min(minCents, cents[i]);
+            maxCents = Math.max(maxCents, cents[i]);
+            minDay = Math.min(minDay, days[i]);
+            maxDay = Math.max(maxDay, days[i]);
+            flagged += flags[i] & 1;
+            flagsUnion |= flags[i] & 0xFF;
+            for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+                maxCode[d] = Math.max(maxCode[d], codes[d][i]);
+            }
+        }
+        int dayWidth = (long) maxDay - minDay <= 0xFFFF ? 2 : 4;
+        int[] codeWidth = new int[ColumnarFormat.DICTIONARIES];
+        for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+            codeWidth[d] = maxCode[d] <= 0xFF ? 1 : 2;
+        }
+
+        for (int i = 0; i < rows; i++) out.putLong(cents[i]);
+        for (int i = 0; i < rows; i++) {
+            int delta = days[i] - minDay;
+            if (dayWidth == 2) out.putShort((short) delta); else out.putInt(delta);
+        }
+        for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+            int[] column = codes[d];
+            for (int i = 0; i < rows; i++) {
+                if (codeWidth[d] == 1) out.put((byte) column[i]); else out.putShort((short) column[i]);
+            }
+        }
+        out.put(flags, 0, rows);
+        for (int pad = ColumnarFormat.align8(out.position()); pad > 0; pad--) out.put((byte) 0);
+
+        long widths = dayWidth | codeWidth[0] << 8 | codeWidth[1] << 16 | codeWidth[2] << 24;
+        blockIndex.add(new long[] {position, rows, widths, minDay, maxDay, minCents, maxCents, flagged, flagsUnion});
+        drain();
+        rowsWritten += rows;
+        buffered = 0;
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            position += channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (out.remaining() < bytes) {
+            drain();
+            if (out.capacity() < bytes) {
+                out = ByteBuffer.allocate(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            }
+        }
+    }
+
+    private void writeFooter() throws IOException {
+        long footerOffset = position;
+        for (int d = 0; d < ColumnarFormat.DICTIONARIES; d++) {
+            ensureCapacity(4);
+            out.putInt(dictionaries.get(d).size());
+            for (String value : dictionaries.get(d)) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                ensureCapacity(4 + bytes.length);
+                out.putInt(bytes.length).put(bytes);
+            }
+        }
+        ensureCapacity(4);
+        out.putInt(blockIndex.size());
+        for (long[] entry : blockIndex) {
+            ensureCapacity(entry.length * 8);
+            for (long v : entry) out.putLong(v);
+        }
+        ensureCapacity(ColumnarFormat.TRAILER_BYTES);
+        out.putLong(footerOffset).putInt(ColumnarFormat.MAGIC);
+        drain();
+    }
+
+    public long getRowsWritten() { return rowsWritten + buffered; }
+    public Path getFile() { return file; }
+
+    /**
+     * Discards the export: closes and deletes the temporary file without
+     * publishing anything. A later {@link #close()} does nothing.
+     */
+    public void abort() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+        System.err.printf("[ColumnarWriter] Discarded incomplete export %s%n", file);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try (channel) {
+            flushBlock();
+            writeFooter();
+            channel.force(false);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        System.out.printf("[ColumnarWriter] Wrote %d rows in %d blocks to %s%n",
+                rowsWritten, blockIndex.size(), file);
+    }
+}
@@ -0,0 +1,45 @@
+package com.etl.columnar;
+
+import java.util.Map;
+
+/**
+ * Grouped totals of a {@link ColumnarFile} scan, plus how much of the file
+ * the block statistics let it skip.
+ */
+public class ScanResult {
+
+    /** Count and volume of one group. */
+    public static class Group {
+        private final long count;
+        private final long sumCents;
+        private final long maxCents;
+
+        Group(long count, long sumCents, long maxCents) {
+            this.count = count;
+            this.sumCents = sumCents;
+            this.maxCents = maxCents;
+        }
+
+        public long getCount() { return count; }
+        public long getSumCents() { return sumCents; }
+        public double getVolumeUsd() { return sumCents / 100.0; }
+        public double getMaxAmountUsd() { return maxCents / 100.0; }
+    }
+
+    private final Map<String, Group> groups;
+    private final int blocksScanned;
+    private final int blocksSkipped;
+    private final long rowsMatched;
+
+    ScanResult(Map<String, Group> groups, int blocksScanned, int blocksSkipped, long rowsMatched) {
+        this.groups = groups;
+        this.blocksScanned = blocksScanned;
+        this.blocksSkipped = blocksSkipped;
+        this.rowsMatched = rowsMatched;
+    }
+
+    public Map<String, Group> getGroups() { return groups; }
+    public int getBlocksScanned() { return blocksScanned; }
+    public int getBlocksSkipped() { return blocksSkipped; }
+    public long getRowsMatched() { return rowsMatched; }
+}
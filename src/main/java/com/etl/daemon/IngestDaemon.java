@@ -0,0 +1,252 @@
+package com.etl.daemon;
+
+import com.etl.Pipeline;
+import com.etl.metrics.MetricsRegistry;
+import com.etl.metrics.StageMetrics;
+import com.etl.model.ETLResult;
+import com.etl.model.Transaction;
+import com.etl.reader.CSVReader;
+
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.StandardWatchEventKinds.*;
+
+/**
+ * Long-running ingest mode: watches an inbox directory and pushes new CSV
+ * files through one warm {@link Pipeline} (same JVM, same JIT state, same
+ * database connection) instead of starting a fresh process per file.
+ *
+ * Directory layout under the inbox:
+ *   inbox/              producers drop files here (write as .tmp/.part or a
+ *                       dot-file, then rename, so half-written files are never claimed)
+ *   inbox/.processing/  files claimed by this daemon via atomic rename
+ *   inbox/done/         successfully loaded files
+ *   inbox/failed/       files whose batch failed
+ *
+ * Micro-batching: once a file has been claimed, the daemon keeps claiming
+ * files until either {@code maxLatencyMillis} has passed since the first
+ * claim or {@code maxBatchRecords} rows are pending, then processes and
+ * commits the whole batch. The batch is also closed early when the
+ * pipeline's memory governor reports heap pressure. Claiming stops at the
+ * same limits, so a large backlog is worked off batch by batch rather than
+ * parsed into one heap-sized batch; the files left behind stay in the inbox
+ * for the next one. Files left in .processing by a crashed run are returned
+ * to the inbox at startup.
+ */
+public class IngestDaemon {
+
+    private static final String PROCESSING_DIR = ".processing";
+    private static final String DONE_DIR = "done";
+    private static final String FAILED_DIR = "failed";
+
+    private final Path inbox;
+    private final Path processing;
+    private final Path done;
+    private final Path failed;
+    private final Pipeline pipeline;
+    private final MetricsRegistry metrics;
+    private final long maxLatencyMillis;
+    private final int maxBatchRecords;
+
+    private volatile boolean running = true;
+    private volatile int pending = 0;
+    private boolean backlog = false;
+    private long batchesProcessed = 0;
+    private long filesProcessed = 0;
+
+    public IngestDaemon(Path inbox, String outputDb, long maxLatencyMillis, int maxBatchRecords) throws IOException {
+        this.inbox = inbox;
+        this.processing = Files.createDirectories(inbox.resolve(PROCESSING_DIR));
+        this.done = Files.createDirectories(inbox.resolve(DONE_DIR));
+        this.failed = Files.createDirectories(inbox.resolve(FAILED_DIR));
+        this.metrics = new MetricsRegistry();
+        this.pipeline = new Pipeline(outputDb, metrics);
+        this.pipeline.setVerbose(false);
+        this.pipeline.getGovernor().registerQueue("daemon.pending", () -> pending);
+        this.maxLatencyMillis = maxLatencyMillis;
+        this.maxBatchRecords = maxBatchRecords;
+    }
+
+    /**
+     * Blocks until {@link #stop()} is called (e.g. from a shutdown hook).
+     */
+    public void run() throws IOException {
+        recoverAbandonedClaims();
+        System.out.printf("[IngestDaemon] Watching %s (max latency %d ms, max batch %d records)%n",
+                inbox.toAbsolutePath(), maxLatencyMillis, maxBatchRecords);
+
+        try (WatchService watcher = inbox.getFileSystem().newWatchService()) {
+            inbox.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+
+            // Files that arrived while the daemon was down
+            List<Claimed> batch = new ArrayList<>();
+            claimAll(batch);
+
+            while (running) {
+                if (batch.isEmpty()) {
+                    WatchKey key = watcher.poll(500, TimeUnit.MILLISECONDS);
+                    if (key == null && !backlog) continue;
+                    if (key != null) {
+                        key.pollEvents();
+                        key.reset();
+                    }
+                    claimAll(batch);
+                    continue;
+                }
+
+                // A batch is open: collect more files until the latency budget or size cap is hit
+                long deadline = batch.get(0).claimedAtNanos + TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+                while (running && pendingRecords(batch) < maxBatchRecords) {
+                    if (pipeline.getGovernor().underPressure()) {
+                        pipeline.getGovernor().recordEarlyFlush();
+                        break;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) break;
+                    WatchKey key = watcher.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (key == null) break;
+                    key.pollEvents();
+                    key.reset();
+                    claimAll(batch);
+                }
+                processBatch(batch);
+                batch.clear();
+                pending = 0;
+                claimAll(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException ignored) {
+            // stopped
+        } finally {
+            try {
+                pipeline.close();
+            } catch (Exception e) {
+                System.err.println("[IngestDaemon] Error closing pipeline: " + e.getMessage());
+            }
+            System.out.printf("[IngestDaemon] Stopped after %d batches / %d files.%n", batchesProcessed, filesProcessed);
+        }
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * Claims inbox files into the batch until it reaches {@code maxBatchRecords}
+     * or the governor reports pressure. An empty batch always takes at least
+     * one file so the daemon keeps making progress.
+     */
+    private void claimAll(List<Claimed> batch) throws IOException {
+        backlog = false;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(inbox, Files::isRegularFile)) {
+            for (Path file : entries) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(".") || name.endsWith(".tmp") || name.endsWith(".part")) continue;
+                if (!batch.isEmpty() && (pending >= maxBatchRecords || pipeline.getGovernor().underPressure())) {
+                    backlog = true;
+                    break;
+                }
+                Claimed claimed = claim(file);
+                if (claimed != null) {
+                    batch.add(claimed);
+                    pending += claimed.rows.size();
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims a file by atomically renaming it into .processing, then parses it.
+     * A failed rename means another daemon got there first.
+     */
+    private Claimed claim(Path file) {
+        Path target = processing.resolve(file.getFileName());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            return null;
+        }
+        long claimedAtNanos = System.nanoTime();
+
+        StageMetrics readStage = metrics.stage("reader");
+        readStage.start();
+        CSVReader reader = new CSVReader();
+        try {
+            List<Transaction> rows = reader.read(target.toString());
+            readStage.stop(rows.size() + reader.getSkippedRows(), rows.size());
+            return new Claimed(target, rows, claimedAtNanos);
+        } catch (IOException e) {
+            readStage.stop(0, 0);
+            System.err.printf("[IngestDaemon] Could not read %s: %s%n", target.getFileName(), e.getMessage());
+            moveQuietly(target, failed);
+            return null;
+        }
+    }
+
+    private void processBatch(List<Claimed> batch) {
+        long start = System.nanoTime();
+        List<Transaction> raw = new ArrayList<>(pendingRecords(batch));
+        for (Claimed c : batch) raw.addAll(c.rows);
+
+        ETLResult result = new ETLResult();
+        result.setTotalRead(raw.size());
+        Path destination = done;
+        try {
+            pipeline.process(raw, result);
+        } catch (Exception e) {
+            System.err.println("[IngestDaemon] Batch failed: " + e.getMessage());
+            destination = failed;
+        }
+        for (Claimed c : batch) moveQuietly(c.file, destination);
+
+        batchesProcessed++;
+        filesProcessed += batch.size();
+        long arrivalToCommitMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.get(0).claimedAtNanos);
+        System.out.printf("[IngestDaemon] Batch %d: %d files, %d read, %d loaded, %d flagged in %d ms (%d ms since first claim)%n",
+                batchesProcessed, batch.size(), result.getTotalRead(), result.getTotalLoaded(),
+                result.getTotalFlagged(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), arrivalToCommitMs);
+    }
+
+    private void recoverAbandonedClaims() throws IOException {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(processing)) {
+            for (Path file : entries) {
+                System.out.printf("[IngestDaemon] Re-queueing abandoned file %s%n", file.getFileName());
+                Files.move(file, inbox.resolve(file.getFileName()), StandardCopyOption.ATOMIC_MOVE);
+            }
+        }
+    }
+
+    private static void moveQuietly(Path file, Path dir) {
+        try {
+            Files.move(file, dir.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.printf("[IngestDaemon] Could not move %s to %s: %s%n", file, dir, e.getMessage());
+        }
+    }
+
+    private static int pendingRecords(List<Claimed> batch) {
+        int total = 0;
+        for (Claimed c : batch) total += c.rows.size();
+        return total;
+    }
+
+    private static final class Claimed {
+        final Path file;
+        final List<Transaction> rows;
+        final long claimedAtNanos;
+
+        Claimed(Path file, List<Transaction> rows, long claimedAtNanos) {
+            this.file = file;
+            this.rows = rows;
+            this.claimedAtNanos = claimedAtNanos;
+        }
+    }
+
+    public long getBatchesProcessed() { return batchesProcessed; }
+    public long getFilesProcessed() { return filesProcessed; }
+}
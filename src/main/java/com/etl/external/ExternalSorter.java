@@ -0,0 +1,244 @@
+package com.etl.external;
+
+import com.etl.governor.MemoryGovernor;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Sorts more records than fit in memory.
+ *
+ * Records are buffered until their estimated heap size reaches the memory
+ * budget, then sorted and spilled to a binary run file. {@link #sorted()}
+ * k-way merges the runs (in several passes when there are more than
+ * {@link #MAX_FAN_IN}), so memory stays at roughly the budget plus one read
+ * buffer per open run regardless of the input size. The sort is stable:
+ * records that compare equal come out in the order they were added.
+ *
+ * Run files live in a temp directory that {@link #close()} removes. With a
+ * {@link MemoryGovernor} attached, the buffer is also spilled early whenever
+ * the governor reports heap pressure.
+ */
+public class ExternalSorter<T> implements AutoCloseable {
+
+    public static final int MAX_FAN_IN = 64;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Spilling fewer records than this early would only produce tiny runs.
+    private static final int MIN_EARLY_SPILL = 1024;
+
+    private final RecordCodec<T> codec;
+    private final Comparator<? super T> order;
+    private final long memoryBudget;
+
+    private final List<T> buffer = new ArrayList<>();
+    private long bufferedBytes = 0;
+    private final List<Run> runs = new ArrayList<>();
+    private final List<Run.Cursor> openCursors = new ArrayList<>();
+    private Path dir;
+    private MemoryGovernor governor;
+    private long added = 0;
+    private int runsSpilled = 0;
+    private int mergePasses = 0;
+
+    public ExternalSorter(RecordCodec<T> codec, Comparator<? super T> order, long memoryBudgetBytes) {
+        if (memoryBudgetBytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive: " + memoryBudgetBytes);
+        }
+        this.codec = codec;
+        this.order = order;
+        this.memoryBudget = memoryBudgetBytes;
+    }
+
+    public void setGovernor(MemoryGovernor governor) {
+        this.governor = governor;
+    }
+
+    public void add(T record) throws IOException {
+        buffer.add(record);
+        bufferedBytes += codec.estimateHeapBytes(record);
+        added++;
+        if (bufferedBytes >= memoryBudget) {
+            spill();
+        } else if (governor != null && buffer.size() >= MIN_EARLY_SPILL
+                && (added & (MIN_EARLY_SPILL - 1)) == 0 && governor.underPressure()) {
+            governor.recordEarlySpill();
+            spill();
+        }
+    }
+
+    /**
+     * Everything added so far in sorted order. Call once, after the last {@link #add}.
+     */
+    public Iterator<T> sorted() throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(order);
+            return buffer.iterator();
+        }
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+        while (runs.size() > MAX_FAN_IN) {
+            mergePass();
+        }
+        return new MergeIterator(runs);
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(order);
+        Run run = newRun();
+        try (DataOutputStream out = run.openWriter()) {
+            for (T record : buffer) {
+                codec.write(out, record);
+            }
+        }
+        run.size = buffer.size();
+        runs.add(run);
+        runsSpilled++;
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    /**
+     * Merges consecutive groups of runs, which keeps equal records in insertion order.
+     */
+    private void mergePass() throws IOException {
+        List<Run> merged = new ArrayList<>();
+        for (int from = 0; from < runs.size(); from += MAX_FAN_IN) {
+            List<Run> group = runs.subList(from, Math.min(from + MAX_FAN_IN, runs.size()));
+            Run run = newRun();
+            try (DataOutputStream out = run.openWriter()) {
+                MergeIterator it = new MergeIterator(group);
+                while (it.hasNext()) {
+                    codec.write(out, it.next());
+                    run.size++;
+                }
+            }
+            for (Run old : group) {
+                Files.deleteIfExists(old.file);
+            }
+            merged.add(run);
+        }
+        runs.clear();
+        runs.addAll(merged);
+        mergePasses++;
+    }
+
+    private Run newRun() throws IOException {
+        if (dir == null) {
+            dir = Files.createTempDirectory("etl-sort");
+        }
+        return new Run(Files.createTempFile(dir, "run-", ".bin"));
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Run.Cursor cursor : openCursors) {
+            cursor.close();
+        }
+        openCursors.clear();
+        buffer.clear();
+        if (dir != null) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir)) {
+                for (Path file : files) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(dir);
+            dir = null;
+        }
+        runs.clear();
+    }
+
+    public long getRecordsAdded() { return added; }
+    public int getBufferedRecords() { return buffer.size(); }
+    public int getRunsSpilled() { return runsSpilled; }
+    public int getMergePasses() { return mergePasses; }
+
+    private final class Run {
+        final Path file;
+        long size;
+
+        Run(Path file) {
+            this.file = file;
+        }
+
+        DataOutputStream openWriter() throws IOException {
+            return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER_SIZE));
+        }
+
+        final class Cursor {
+            final int index;
+            final DataInputStream in;
+            long remaining = size;
+            T head;
+
+            Cursor(int index) throws IOException {
+                this.index = index;
+                this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE));
+            }
+
+            boolean advance() throws IOException {
+                if (remaining == 0) {
+                    head = null;
+                    close();
+                    return false;
+                }
+                head = codec.read(in);
+                remaining--;
+                return true;
+            }
+
+            void close() throws IOException {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * Heap of run cursors; ties go to the earlier run, which makes the merge stable.
+     */
+    private final class MergeIterator implements Iterator<T> {
+        private final PriorityQueue<Run.Cursor> heap;
+
+        MergeIterator(List<Run> sources) throws IOException {
+            heap = new PriorityQueue<>(Math.max(1, sources.size()), (a, b) -> {
+                int c = order.compare(a.head, b.head);
+                return c != 0 ? c : Integer.compare(a.index, b.index);
+            });
+            for (int i = 0; i < sources.size(); i++) {
+                Run.Cursor cursor = sources.get(i).new Cursor(i);
+                openCursors.add(cursor);
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            Run.Cursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+            T record = cursor.head;
+            try {
+                if (cursor.advance()) {
+                    heap.add(cursor);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return record;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.etl.external;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Compact binary encoding of spilled records, plus an estimate of how much
+ * heap a decoded record occupies (used to enforce the memory budget).
+ */
+public interface RecordCodec<T> {
+
+    void write(DataOutput out, T record) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    long estimateHeapBytes(T record);
+
+    /**
+     * Encodes {@link Sequenced} records as the sequence number followed by the value.
+     */
+    static <T> RecordCodec<Sequenced<T>> sequenced(RecordCodec<T> values) {
+        return new RecordCodec<>() {
+            @Override
+            public void write(DataOutput out, Sequenced<T> record) throws IOException {
+                out.writeLong(record.getSequence());
+                values.write(out, record.getValue());
+            }
+
+            @Override
+            public Sequenced<T> read(DataInput in) throws IOException {
+                long sequence = in.readLong();
+                return new Sequenced<>(sequence, values.read(in));
+            }
+
+            @Override
+            public long estimateHeapBytes(Sequenced<T> record) {
+                return 24 + values.estimateHeapBytes(record.getValue());
+            }
+        };
+    }
+}
@@ -0,0 +1,19 @@
+package com.etl.external;
+
+/**
+ * A record tagged with its position in the input, so that sorts on other
+ * keys can still break ties (and pick "first occurrences") by input order.
+ */
+public final class Sequenced<T> {
+
+    private final long sequence;
+    private final T value;
+
+    public Sequenced(long sequence, T value) {
+        this.sequence = sequence;
+        this.value = value;
+    }
+
+    public long getSequence() { return sequence; }
+    public T getValue() { return value; }
+}
@@ -0,0 +1,26 @@
+package com.etl.external;
+
+import com.etl.Stage;
+import com.etl.StageCounters;
+import com.etl.model.Transaction;
+
+/**
+ * Exact-ID deduplication for records that arrive sorted by transaction ID:
+ * only the previous ID has to be remembered, instead of every ID seen.
+ */
+public class SortedDedup implements Stage {
+
+    private String lastId;
+
+    @Override
+    public boolean process(Transaction t, StageCounters counters) {
+        if (t.getTransactionId().equals(lastId)) {
+            System.err.printf("[SortedDedup] Duplicate transaction ID found and removed: %s%n",
+                    t.getTransactionId());
+            counters.increment(StageCounters.Counter.DUPLICATES_REMOVED);
+            return false;
+        }
+        lastId = t.getTransactionId();
+        return true;
+    }
+}
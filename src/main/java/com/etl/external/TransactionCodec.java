@@ -0,0 +1,91 @@
+package com.etl.external;
+
+import com.etl.model.Transaction;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Binary form of a {@link Transaction} for run files: strings as modified
+ * UTF-8 with a presence byte, the date as an epoch day, and the note/flag
+ * bitmasks as plain ints.
+ */
+public final class TransactionCodec implements RecordCodec<Transaction> {
+
+    public static final TransactionCodec INSTANCE = new TransactionCodec();
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private TransactionCodec() {}
+
+    @Override
+    public void write(DataOutput out, Transaction t) throws IOException {
+        writeString(out, t.getTransactionId());
+        writeString(out, t.getCustomerId());
+        writeString(out, t.getFullName());
+        writeString(out, t.getPhone());
+        writeString(out, t.getEmail());
+        out.writeDouble(t.getAmount());
+        writeString(out, t.getCurrency());
+        out.writeLong(t.getTransactionDate() == null ? NO_DATE : t.getTransactionDate().toEpochDay());
+        writeString(out, t.getTransactionType());
+        writeString(out, t.getCountry());
+        out.writeBoolean(t.isFlaggedForReview());
+        out.writeInt(t.getNoteCodes());
+        out.writeInt(t.getAmlFlags());
+        writeString(out, t.getSourceCurrency());
+        out.writeDouble(t.getFxRate());
+        writeString(out, t.getDuplicateOf());
+    }
+
+    @Override
+    public Transaction read(DataInput in) throws IOException {
+        Transaction t = new Transaction();
+        t.setTransactionId(readString(in));
+        t.setCustomerId(readString(in));
+        t.setFullName(readString(in));
+        t.setPhone(readString(in));
+        t.setEmail(readString(in));
+        t.setAmount(in.readDouble());
+        t.setCurrency(readString(in));
+        long epochDay = in.readLong();
+        t.setTransactionDate(epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay));
+        t.setTransactionType(readString(in));
+        t.setCountry(readString(in));
+        t.setFlaggedForReview(in.readBoolean());
+        t.setNoteCodes(in.readInt());
+        t.setAmlFlags(in.readInt());
+        t.setSourceCurrency(readString(in));
+        t.setFxRate(in.readDouble());
+        t.setDuplicateOf(readString(in));
+        return t;
+    }
+
+    /**
+     * Object, date and string headers plus one byte per (Latin-1) character.
+     */
+    @Override
+    public long estimateHeapBytes(Transaction t) {
+        return 88 + 24
+                + stringBytes(t.getTransactionId()) + stringBytes(t.getCustomerId())
+                + stringBytes(t.getFullName()) + stringBytes(t.getPhone())
+                + stringBytes(t.getEmail()) + stringBytes(t.getCurrency())
+                + stringBytes(t.getTransactionType()) + stringBytes(t.getCountry())
+                + stringBytes(t.getSourceCurrency()) + stringBytes(t.getDuplicateOf());
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();
+    }
+
+    private static void writeString(DataOutput out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
@@ -0,0 +1,103 @@
+package com.etl.generator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Settings for {@link TransactionGenerator}.
+ *
+ * Can be built with setters or parsed from a compact spec such as
+ * {@code rows=1000000,seed=7,malformedRate=0.01,currencies=USD|EUR|JPY}.
+ * List values are separated by '|'. Rates are probabilities in [0, 1].
+ */
+public class GeneratorConfig {
+
+    public static final List<String> ALL_DATE_FORMATS = List.of("yyyy-MM-dd", "MM/dd/yyyy", "dd-MM-yyyy");
+
+    private long rows = 1_000;
+    private long seed = 42;
+    private int customers = 100_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private List<String> dateFormats = ALL_DATE_FORMATS;
+    private List<String> currencies = List.of("USD", "USD", "USD", "EUR", "GBP", "INR", "CAD", "AUD", "JPY", "MXN");
+    private List<String> countries = List.of("US", "US", "US", "GB", "DE", "IN", "CA", "AU", "JP", "MX",
+            "RU", "BR", "FR", "NG", "IR", "KP");
+    private double malformedRate = 0.001;
+    private double invalidEmailRate = 0.005;
+    private double duplicateRate = 0.002;
+    private double nearDuplicateRate = 0.002;
+    private double structuringRate = 0.01;
+
+    public static GeneratorConfig parse(String spec) {
+        GeneratorConfig config = new GeneratorConfig();
+        if (spec == null || spec.isBlank()) return config;
+
+        for (String pair : spec.split(",")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Expected key=value in generator spec, got: " + pair);
+            }
+            String key = kv[0].trim();
+            String value = kv[1].trim();
+            switch (key) {
+                case "rows" -> config.setRows(Long.parseLong(value.replace("_", "")));
+                case "seed" -> config.setSeed(Long.parseLong(value));
+                case "customers" -> config.setCustomers(Integer.parseInt(value));
+                case "threads" -> config.setThreads(Integer.parseInt(value));
+                case "dateFormats" -> config.setDateFormats(Arrays.asList(value.split("\\|")));
+                case "currencies" -> config.setCurrencies(Arrays.asList(value.split("\\|")));
+                case "countries" -> config.setCountries(Arrays.asList(value.split("\\|")));
+                case "malformedRate" -> config.setMalformedRate(Double.parseDouble(value));
+                case "invalidEmailRate" -> config.setInvalidEmailRate(Double.parseDouble(value));
+                case "duplicateRate" -> config.setDuplicateRate(Double.parseDouble(value));
+                case "nearDuplicateRate" -> config.setNearDuplicateRate(Double.parseDouble(value));
+                case "structuringRate" -> config.setStructuringRate(Double.parseDouble(value));
+                default -> throw new IllegalArgumentException("Unknown generator setting: " + key);
+            }
+        }
+        return config;
+    }
+
+    public long getRows() { return rows; }
+    public void setRows(long rows) { this.rows = rows; }
+
+    public long getSeed() { return seed; }
+    public void setSeed(long seed) { this.seed = seed; }
+
+    public int getCustomers() { return customers; }
+    public void setCustomers(int customers) { this.customers = customers; }
+
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = Math.max(1, threads); }
+
+    public List<String> getDateFormats() { return dateFormats; }
+    public void setDateFormats(List<String> dateFormats) {
+        for (String fmt : dateFormats) {
+            if (!ALL_DATE_FORMATS.contains(fmt)) {
+                throw new IllegalArgumentException("Date format not supported by CSVReader: " + fmt);
+            }
+        }
+        this.dateFormats = List.copyOf(dateFormats);
+    }
+
+    public List<String> getCurrencies() { return currencies; }
+    public void setCurrencies(List<String> currencies) { this.currencies = List.copyOf(currencies); }
+
+    public List<String> getCountries() { return countries; }
+    public void setCountries(List<String> countries) { this.countries = List.copyOf(countries); }
+
+    public double getMalformedRate() { return malformedRate; }
+    public void setMalformedRate(double malformedRate) { this.malformedRate = malformedRate; }
+
+    public double getInvalidEmailRate() { return invalidEmailRate; }
+    public void setInvalidEmailRate(double invalidEmailRate) { this.invalidEmailRate = invalidEmailRate; }
+
+    public double getDuplicateRate() { return duplicateRate; }
+    public void setDuplicateRate(double duplicateRate) { this.duplicateRate = duplicateRate; }
+
+    public double getNearDuplicateRate() { return nearDuplicateRate; }
+    public void setNearDuplicateRate(double nearDuplicateRate) { this.nearDuplicateRate = nearDuplicateRate; }
+
+    public double getStructuringRate() { return structuringRate; }
+    public void setStructuringRate(double structuringRate) { this.structuringRate = structuringRate; }
+}
@@ -0,0 +1,368 @@
+package com.etl.generator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.*;
+
+/**
+ * Deterministic synthetic transaction generator for scale and soak testing.
+ *
+ * Output is CSV in exactly the format {@code CSVReader} reads. Rows are
+ * produced in fixed-size chunks; every chunk has its own random stream derived
+ * from (seed, chunk index), so the output is byte-for-byte identical for a
+ * given seed regardless of the number of threads. Chunks are generated in
+ * parallel and written in order, with a bounded number in flight.
+ *
+ * Usage:
+ *   java -cp etl-pipeline.jar com.etl.generator.TransactionGenerator <output.csv|-> [spec]
+ *
+ * Example:
+ *   java -cp etl-pipeline.jar com.etl.generator.TransactionGenerator big.csv rows=100000000,seed=7
+ *
+ * The pipeline can also consume generated data directly, without a file:
+ *   java -jar etl-pipeline.jar gen:rows=1000000,seed=7 out.db
+ */
+public class TransactionGenerator {
+
+    public static final String HEADER = "transaction_id,customer_id,full_name,phone,email,amount,currency,date,type,country\n";
+
+    private static final int CHUNK_ROWS = 16_384;
+
+    private static final String[] FIRST_NAMES = {"john", "jane", "carlos", "priya", "wei", "fatima", "olga",
+            "kwame", "maria", "ahmed", "yuki", "liam", "sofia", "raj", "elena", "noah"};
+    private static final String[] LAST_NAMES = {"smith", "doe", "mendez", "patel", "zhang", "ali", "ivanova",
+            "mensah", "garcia", "khan", "tanaka", "murphy", "rossi", "singh", "petrova", "brown"};
+    private static final String[] DOMAINS = {"email.com", "bank.com", "tech.com", "mail.net", "corp.org"};
+    private static final String[] TYPES = {"WIRE", "CASH", "ACH", "DEBIT"};
+    private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+
+    private final GeneratorConfig config;
+    private final String[] currencies;
+    private final String[] countries;
+    private final int[] dateFormats;
+
+    public TransactionGenerator(GeneratorConfig config) {
+        this.config = config;
+        this.currencies = config.getCurrencies().toArray(new String[0]);
+        this.countries = config.getCountries().toArray(new String[0]);
+        this.dateFormats = config.getDateFormats().stream()
+                .mapToInt(GeneratorConfig.ALL_DATE_FORMATS::indexOf).toArray();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: TransactionGenerator <output.csv|-> [key=value,...]");
+            System.exit(2);
+        }
+        GeneratorConfig config = GeneratorConfig.parse(args.length > 1 ? args[1] : "");
+        TransactionGenerator generator = new TransactionGenerator(config);
+        if ("-".equals(args[0])) {
+            generator.writeTo(System.out);
+        } else {
+            generator.writeTo(Path.of(args[0]));
+        }
+    }
+
+    /**
+     * Writes the full CSV (header included) to a file through a FileChannel.
+     */
+    public void writeTo(Path file) throws IOException {
+        long start = System.nanoTime();
+        long bytes = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             ChunkSource source = new ChunkSource()) {
+            byte[] chunk;
+            while ((chunk = source.next()) != null) {
+                ByteBuffer buf = ByteBuffer.wrap(chunk);
+                while (buf.hasRemaining()) {
+                    channel.write(buf);
+                }
+                bytes += chunk.length;
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("[TransactionGenerator] Wrote %,d rows (%,.1f MB) to %s in %.2fs (%.1f MB/s)%n",
+                config.getRows(), bytes / 1e6, file, seconds, bytes / 1e6 / Math.max(seconds, 1e-9));
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        try (ChunkSource source = new ChunkSource()) {
+            byte[] chunk;
+            while ((chunk = source.next()) != null) {
+                out.write(chunk);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Streams the generated CSV (header included) without touching disk.
+     * Closing the stream stops the generator threads.
+     */
+    public InputStream openStream() {
+        ChunkSource source = new ChunkSource();
+        return new InputStream() {
+            private byte[] current = new byte[0];
+            private int pos = 0;
+
+            private boolean fill() throws IOException {
+                while (pos >= current.length) {
+                    byte[] next = source.next();
+                    if (next == null) return false;
+                    current = next;
+                    pos = 0;
+                }
+                return true;
+            }
+
+            @Override
+            public int read() throws IOException {
+                return fill() ? current[pos++] & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (len == 0) return 0;
+                if (!fill()) return -1;
+                int n = Math.min(len, current.length - pos);
+                System.arraycopy(current, pos, b, off, n);
+                pos += n;
+                return n;
+            }
+
+            @Override
+            public void close() {
+                source.close();
+            }
+        };
+    }
+
+    /**
+     * Generates the rows of one chunk. Pure function of (config, chunkIndex).
+     */
+    byte[] generateChunk(long chunkIndex) {
+        long firstRow = chunkIndex * CHUNK_ROWS;
+        long endRow = Math.min(config.getRows(), firstRow + CHUNK_ROWS);
+        SplittableRandom rnd = new SplittableRandom(mix(config.getSeed() ^ mix(chunkIndex + 1)));
+        StringBuilder sb = new StringBuilder((int) (endRow - firstRow) * 110);
+
+        String previousId = null;
+        String previousRest = null;
+
+        for (long row = firstRow; row < endRow; row++) {
+            double roll = rnd.nextDouble();
+
+            // Exact resend of the previous row, same transaction ID
+            if (previousRest != null && roll < config.getDuplicateRate()) {
+                sb.append(previousId).append(previousRest);
+                continue;
+            }
+            roll -= config.getDuplicateRate();
+
+            String id = transactionId(row);
+
+            // Same payment resent under a new transaction ID
+            if (previousRest != null && roll < config.getNearDuplicateRate()) {
+                sb.append(id).append(previousRest);
+                continue;
+            }
+            roll -= config.getNearDuplicateRate();
+
+            sb.append(id);
+            int restStart = sb.length();
+
+            if (roll < config.getMalformedRate()) {
+                appendMalformed(sb, rnd);
+                continue;
+            }
+            roll -= config.getMalformedRate();
+
+            boolean invalidEmail = roll < config.getInvalidEmailRate();
+            roll -= config.getInvalidEmailRate();
+            boolean structuring = roll < config.getStructuringRate();
+
+            appendRow(sb, rnd, invalidEmail, structuring);
+            previousId = id;
+            previousRest = sb.substring(restStart);
+        }
+        return sb.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private void appendRow(StringBuilder sb, SplittableRandom rnd, boolean invalidEmail, boolean structuring) {
+        String first = FIRST_NAMES[rnd.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[rnd.nextInt(LAST_NAMES.length)];
+
+        sb.append(",CUST");
+        appendPadded(sb, rnd.nextInt(config.getCustomers()), 7);
+
+        // Name casing varies like real feeds
+        sb.append(',');
+        switch (rnd.nextInt(4)) {
+            case 0 -> sb.append(first.toUpperCase()).append(' ').append(last.toUpperCase());
+            case 1 -> sb.append('"').append(last).append(", ").append(first).append('"');
+            default -> sb.append(first).append(' ').append(last);
+        }
+
+        sb.append(',');
+        appendPhone(sb, rnd);
+
+        sb.append(',').append(first).append('.').append(last);
+        sb.append(rnd.nextInt(1000));
+        sb.append(invalidEmail ? ".at." : "@").append(DOMAINS[rnd.nextInt(DOMAINS.length)]);
+
+        String type;
+        long cents;
+        if (structuring) {
+            type = "CASH";
+            cents = 900_000 + rnd.nextInt(100_000);
+        } else {
+            type = TYPES[rnd.nextInt(TYPES.length)];
+            double amount = Math.exp(5.5 + 1.6 * rnd.nextGaussian());
+            cents = Math.max(100, Math.min(20_000_000L, Math.round(amount * 100)));
+        }
+        sb.append(',');
+        appendAmount(sb, cents);
+
+        sb.append(',').append(structuring ? "USD" : currencies[rnd.nextInt(currencies.length)]);
+        sb.append(',');
+        appendDate(sb, FIRST_DATE.plusDays(rnd.nextInt(366)), dateFormats[rnd.nextInt(dateFormats.length)]);
+        sb.append(',').append(type);
+        sb.append(',').append(countries[rnd.nextInt(countries.length)]);
+        sb.append('\n');
+    }
+
+    private void appendMalformed(StringBuilder sb, SplittableRandom rnd) {
+        switch (rnd.nextInt(3)) {
+            case 0 -> sb.append(",CUST0000001,truncated row\n");
+            case 1 -> sb.append(",CUST0000001,bad amount,5550000000,bad@amount.com,N/A,USD,2024-01-01,WIRE,US\n");
+            default -> sb.append(",CUST0000001,bad date,5550000000,bad@date.com,10.00,USD,2024-13-45,WIRE,US\n");
+        }
+    }
+
+    private static void appendPhone(StringBuilder sb, SplittableRandom rnd) {
+        int area = 200 + rnd.nextInt(800);
+        int exchange = 200 + rnd.nextInt(800);
+        int line = rnd.nextInt(10_000);
+        switch (rnd.nextInt(3)) {
+            case 0 -> {
+                sb.append(area).append(exchange);
+                appendPadded(sb, line, 4);
+            }
+            case 1 -> {
+                sb.append("+1-").append(area).append('-').append(exchange).append('-');
+                appendPadded(sb, line, 4);
+            }
+            default -> {
+                sb.append('(').append(area).append(") ").append(exchange).append('-');
+                appendPadded(sb, line, 4);
+            }
+        }
+    }
+
+    private static void appendAmount(StringBuilder sb, long cents) {
+        sb.append(cents / 100).append('.');
+        appendPadded(sb, cents % 100, 2);
+    }
+
+    private static void appendDate(StringBuilder sb, LocalDate date, int format) {
+        switch (format) {
+            case 0 -> {
+                sb.append(date.getYear()).append('-');
+                appendPadded(sb, date.getMonthValue(), 2);
+                sb.append('-');
+                appendPadded(sb, date.getDayOfMonth(), 2);
+            }
+            case 1 -> {
+                appendPadded(sb, date.getMonthValue(), 2);
+                sb.append('/');
+                appendPadded(sb, date.getDayOfMonth(), 2);
+                sb.append('/').append(date.getYear());
+            }
+            default -> {
+                appendPadded(sb, date.getDayOfMonth(), 2);
+                sb.append('-');
+                appendPadded(sb, date.getMonthValue(), 2);
+                sb.append('-').append(date.getYear());
+            }
+        }
+    }
+
+    private static String transactionId(long row) {
+        StringBuilder sb = new StringBuilder(16).append("GEN");
+        appendPadded(sb, row, 10);
+        return sb.toString();
+    }
+
+    private static void appendPadded(StringBuilder sb, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) sb.append('0');
+        sb.append(digits);
+    }
+
+    /** SplitMix64 finalizer, used to derive independent per-chunk seeds. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Hands out the header and then every chunk in order, keeping up to two
+     * chunks per thread generating ahead of the consumer.
+     */
+    private final class ChunkSource implements AutoCloseable {
+        private final ExecutorService pool;
+        private final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+        private final long totalChunks = (config.getRows() + CHUNK_ROWS - 1) / CHUNK_ROWS;
+        private final int window = config.getThreads() * 2;
+        private long nextChunk = 0;
+        private boolean headerSent = false;
+
+        ChunkSource() {
+            pool = Executors.newFixedThreadPool(config.getThreads(), r -> {
+                Thread t = new Thread(r, "etl-generator");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+
+        byte[] next() throws IOException {
+            if (!headerSent) {
+                headerSent = true;
+                return HEADER.getBytes(StandardCharsets.ISO_8859_1);
+            }
+            while (inFlight.size() < window && nextChunk < totalChunks) {
+                long chunk = nextChunk++;
+                inFlight.add(pool.submit(() -> generateChunk(chunk)));
+            }
+            Future<byte[]> head = inFlight.poll();
+            if (head == null) return null;
+            try {
+                return head.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Generator interrupted");
+            } catch (ExecutionException e) {
+                throw new IOException("Generator chunk failed", e.getCause());
+            }
+        }
+
+        @Override
+        public void close() {
+            pool.shutdownNow();
+        }
+    }
+
+    public GeneratorConfig getConfig() { return config; }
+}
@@ -0,0 +1,74 @@
+package com.etl.governor;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Picks the number of rows per commit from measured commit latency.
+ *
+ * Each commit updates a smoothed cost per row; the next batch is sized so
+ * that it should take about the target commit time, moving at most a
+ * factor of two per commit and staying within [min, max]. Small batches pay
+ * the fixed fsync cost too often, huge ones hold locks and memory for too
+ * long; the target sits between the two on whatever disk the pipeline runs
+ * on. While the pressure signal is raised the size is halved instead.
+ */
+public class BatchSizer {
+
+    public static final long DEFAULT_TARGET_COMMIT_MILLIS = 50;
+    public static final int DEFAULT_MIN_BATCH = 100;
+    public static final int DEFAULT_MAX_BATCH = 50_000;
+
+    private static final double SMOOTHING = 0.3;
+
+    private final long targetNanos;
+    private final int minBatch;
+    private final int maxBatch;
+    private final BooleanSupplier pressure;
+
+    private int batchSize;
+    private double nanosPerRow = -1;
+    private long shrinks = 0;
+
+    public BatchSizer() {
+        this(DEFAULT_TARGET_COMMIT_MILLIS * 1_000_000, DEFAULT_MIN_BATCH, DEFAULT_MAX_BATCH, () -> false);
+    }
+
+    public BatchSizer(long targetCommitNanos, int minBatch, int maxBatch, BooleanSupplier pressure) {
+        if (targetCommitNanos <= 0 || minBatch <= 0 || maxBatch < minBatch) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid batch sizing: target %d ns, min %d, max %d", targetCommitNanos, minBatch, maxBatch));
+        }
+        this.targetNanos = targetCommitNanos;
+        this.minBatch = minBatch;
+        this.maxBatch = maxBatch;
+        this.pressure = pressure;
+        this.batchSize = minBatch;
+    }
+
+    public synchronized int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Feeds back one commit of {@code rows} rows that took {@code nanos}.
+     */
+    public synchronized void record(int rows, long nanos) {
+        if (rows <= 0) return;
+        double perRow = Math.max(1.0, nanos / (double) rows);
+        nanosPerRow = nanosPerRow < 0 ? perRow : nanosPerRow + SMOOTHING * (perRow - nanosPerRow);
+
+        long next;
+        if (pressure.getAsBoolean()) {
+            next = batchSize / 2;
+            shrinks++;
+        } else {
+            long desired = (long) (targetNanos / nanosPerRow);
+            next = Math.max(batchSize / 2, Math.min(2L * batchSize, desired));
+        }
+        batchSize = (int) Math.max(minBatch, Math.min(maxBatch, next));
+    }
+
+    public long getTargetNanos() { return targetNanos; }
+    public synchronized double getNanosPerRow() { return Math.max(0, nanosPerRow); }
+    public synchronized long getShrinks() { return shrinks; }
+}
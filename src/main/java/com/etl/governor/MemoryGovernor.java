@@ -0,0 +1,193 @@
+package com.etl.governor;
+
+import com.etl.metrics.MetricsRegistry;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a run inside the heap without hand-tuning.
+ *
+ * Heap occupancy is the used fraction of the old generation (the pool that
+ * supports usage thresholds), which only grows with data that survived
+ * young collections and so tracks retained rather than short-lived memory.
+ * Above the high watermark the governor reports pressure, and the pipeline
+ * reacts where it holds data: the loader's {@link BatchSizer} halves its
+ * commit size, external sorts spill early and the ingest daemon flushes its
+ * micro-batch. Batch-mode reading has nothing downstream to drain it until
+ * the whole input is in memory, so waiting would only postpone an
+ * OutOfMemoryError; the reader asks {@link #underPressureAfterCollection()}
+ * before each file and fails fast instead.
+ *
+ * Stages register their queue depths; those and every decision are exposed
+ * as gauges in the {@link MetricsRegistry} and over JMX.
+ */
+public class MemoryGovernor implements MemoryGovernorMBean {
+
+    public static final double DEFAULT_HIGH_WATERMARK = 0.80;
+
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final double highWatermark;
+    private final DoubleSupplier occupancySource;
+    private final BatchSizer commitSizer;
+    private final Map<String, LongSupplier> queues = new LinkedHashMap<>();
+    private MetricsRegistry metrics;
+
+    private volatile long sampledAtNanos = System.nanoTime() - SAMPLE_INTERVAL_NANOS;
+    private volatile double occupancy = 0;
+    private volatile double peakOccupancy = 0;
+
+    private final AtomicLong earlySpills = new AtomicLong();
+    private final AtomicLong earlyFlushes = new AtomicLong();
+
+    public MemoryGovernor(double highWatermark, long targetCommitMillis, int minBatch, int maxBatch) {
+        this(highWatermark, targetCommitMillis, minBatch, maxBatch, oldGenOccupancy());
+    }
+
+    /**
+     * A governor that reads heap occupancy (in [0, 1]) from {@code occupancySource}.
+     */
+    public MemoryGovernor(double highWatermark, long targetCommitMillis, int minBatch, int maxBatch,
+                          DoubleSupplier occupancySource) {
+        if (highWatermark <= 0 || highWatermark >= 1) {
+            throw new IllegalArgumentException("High watermark must be between 0 and 1: " + highWatermark);
+        }
+        this.highWatermark = highWatermark;
+        this.occupancySource = occupancySource;
+        this.commitSizer = new BatchSizer(TimeUnit.MILLISECONDS.toNanos(targetCommitMillis),
+                minBatch, maxBatch, this::underPressure);
+    }
+
+    /**
+     * Settings from -Detl.governor.highWatermark (default 0.80),
+     * -Detl.governor.targetCommitMs (50), -Detl.governor.minBatch (100) and
+     * -Detl.governor.maxBatch (50000).
+     */
+    public static MemoryGovernor fromSystemProperties() {
+        return new MemoryGovernor(
+                Double.parseDouble(System.getProperty("etl.governor.highWatermark",
+                        String.valueOf(DEFAULT_HIGH_WATERMARK))),
+                Long.getLong("etl.governor.targetCommitMs", BatchSizer.DEFAULT_TARGET_COMMIT_MILLIS),
+                Integer.getInteger("etl.governor.minBatch", BatchSizer.DEFAULT_MIN_BATCH),
+                Integer.getInteger("etl.governor.maxBatch", BatchSizer.DEFAULT_MAX_BATCH));
+    }
+
+    /**
+     * Old-generation occupancy in [0, 1], sampled at most every 20 ms so hot
+     * paths can ask freely.
+     */
+    @Override
+    public double getHeapOccupancy() {
+        if (System.nanoTime() - sampledAtNanos >= SAMPLE_INTERVAL_NANOS) {
+            resample();
+        }
+        return occupancy;
+    }
+
+    private double resample() {
+        double sample = occupancySource.getAsDouble();
+        occupancy = sample;
+        if (sample > peakOccupancy) peakOccupancy = sample;
+        sampledAtNanos = System.nanoTime();
+        return sample;
+    }
+
+    public boolean underPressure() {
+        return getHeapOccupancy() >= highWatermark;
+    }
+
+    /**
+     * Whether the heap is still above the watermark after a full collection.
+     * Old-generation occupancy can include garbage that has not been
+     * collected yet; a caller about to give up on the run checks that the
+     * pressure is real first. Cheap when there is no pressure.
+     */
+    public boolean underPressureAfterCollection() {
+        if (!underPressure()) return false;
+        System.gc();
+        return resample() >= highWatermark;
+    }
+
+    public void recordEarlySpill() {
+        earlySpills.incrementAndGet();
+    }
+
+    public void recordEarlyFlush() {
+        earlyFlushes.incrementAndGet();
+    }
+
+    /**
+     * Exposes a stage's backlog (records held but not yet passed on) as a gauge.
+     */
+    public synchronized void registerQueue(String name, LongSupplier depth) {
+        queues.put(name, depth);
+        if (metrics != null) {
+            metrics.gauge("queue." + name, depth::getAsLong);
+        }
+    }
+
+    public BatchSizer getCommitSizer() { return commitSizer; }
+
+    /**
+     * Publishes the governor's state as gauges of {@code metrics} and over JMX.
+     */
+    public synchronized void registerWith(MetricsRegistry metrics) {
+        this.metrics = metrics;
+        metrics.gauge("governor.heapOccupancy", this::getHeapOccupancy);
+        metrics.gauge("governor.peakHeapOccupancy", this::getPeakHeapOccupancy);
+        metrics.gauge("governor.commitBatchSize", this::getCommitBatchSize);
+        metrics.gauge("governor.commitCostMicrosPerRow", this::getCommitCostMicrosPerRow);
+        metrics.gauge("governor.batchShrinks", this::getBatchShrinks);
+        metrics.gauge("governor.earlySpills", this::getEarlySpills);
+        metrics.gauge("governor.earlyFlushes", this::getEarlyFlushes);
+        metrics.gauge("governor.queuedRecords", this::getQueuedRecords);
+        queues.forEach((name, depth) -> metrics.gauge("queue." + name, depth::getAsLong));
+        MetricsRegistry.register("Governor", "memory", this);
+    }
+
+    @Override public double getPeakHeapOccupancy() { return peakOccupancy; }
+    @Override public double getHighWatermark() { return highWatermark; }
+    @Override public int getCommitBatchSize() { return commitSizer.batchSize(); }
+    @Override public double getTargetCommitMillis() { return commitSizer.getTargetNanos() / 1e6; }
+    @Override public double getCommitCostMicrosPerRow() { return commitSizer.getNanosPerRow() / 1e3; }
+    @Override public long getBatchShrinks() { return commitSizer.getShrinks(); }
+    @Override public long getEarlySpills() { return earlySpills.get(); }
+    @Override public long getEarlyFlushes() { return earlyFlushes.get(); }
+
+    @Override
+    public synchronized long getQueuedRecords() {
+        long total = 0;
+        for (LongSupplier depth : queues.values()) total += depth.getAsLong();
+        return total;
+    }
+
+    private static DoubleSupplier oldGenOccupancy() {
+        MemoryPoolMXBean oldGen = findOldGen();
+        return () -> {
+            if (oldGen != null) {
+                MemoryUsage usage = oldGen.getUsage();
+                if (usage.getMax() > 0) return usage.getUsed() / (double) usage.getMax();
+            }
+            Runtime rt = Runtime.getRuntime();
+            return (rt.totalMemory() - rt.freeMemory()) / (double) rt.maxMemory();
+        };
+    }
+
+    private static MemoryPoolMXBean findOldGen() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isUsageThresholdSupported()) {
+                return pool;
+            }
+        }
+        return null;
+    }
+}
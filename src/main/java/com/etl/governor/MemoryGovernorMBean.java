@@ -0,0 +1,17 @@
+package com.etl.governor;
+
+/**
+ * JMX view of the {@link MemoryGovernor}, registered as {@code com.etl:type=Governor,name=memory}.
+ */
+public interface MemoryGovernorMBean {
+    double getHeapOccupancy();
+    double getPeakHeapOccupancy();
+    double getHighWatermark();
+    int getCommitBatchSize();
+    double getTargetCommitMillis();
+    double getCommitCostMicrosPerRow();
+    long getBatchShrinks();
+    long getEarlySpills();
+    long getEarlyFlushes();
+    long getQueuedRecords();
+}
@@ -0,0 +1,144 @@
+package com.etl.metrics;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Holds the {@link StageMetrics} of a pipeline run, in stage order.
+ *
+ * Every stage is registered as an MBean ({@code com.etl:type=Stage,name=<stage>})
+ * so a running pipeline can be watched from JConsole/VisualVM, and the whole
+ * registry can be written as JSON next to the quality report. Components
+ * that make runtime decisions (the memory governor) publish them as named
+ * gauges, read when the JSON is written.
+ *
+ * In fast-start mode ({@code -Detl.fastStart=true}) nothing is registered with
+ * JMX: bringing up the platform MBean server costs a few hundred milliseconds,
+ * more than a short run takes, and such a run ends before anyone could attach.
+ */
+public class MetricsRegistry {
+
+    private static final String JMX_DOMAIN = "com.etl";
+
+    private static volatile boolean jmxEnabled = !Boolean.getBoolean("etl.fastStart");
+
+    private final Map<String, StageMetrics> stages = new LinkedHashMap<>();
+    private final Map<String, DoubleSupplier> gauges = new LinkedHashMap<>();
+
+    public synchronized StageMetrics stage(String name) {
+        return stages.computeIfAbsent(name, n -> {
+            StageMetrics metrics = new StageMetrics(n);
+            registerMBean(metrics);
+            return metrics;
+        });
+    }
+
+    public synchronized List<StageMetrics> getStages() {
+        return new ArrayList<>(stages.values());
+    }
+
+    public synchronized void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public synchronized Map<String, Double> readGauges() {
+        Map<String, Double> values = new LinkedHashMap<>();
+        gauges.forEach((name, value) -> values.put(name, value.getAsDouble()));
+        return values;
+    }
+
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\n  \"stages\": [");
+        List<StageMetrics> all = getStages();
+        for (int i = 0; i < all.size(); i++) {
+            StageMetrics s = all.get(i);
+            sb.append(i == 0 ? "\n" : ",\n");
+            sb.append("    {\n");
+            sb.append(String.format(Locale.ROOT, "      \"name\": \"%s\",%n", s.getName()));
+            sb.append(String.format(Locale.ROOT, "      \"recordsIn\": %d,%n", s.getRecordsIn()));
+            sb.append(String.format(Locale.ROOT, "      \"recordsOut\": %d,%n", s.getRecordsOut()));
+            sb.append(String.format(Locale.ROOT, "      \"elapsedMillis\": %d,%n", s.getElapsedMillis()));
+            sb.append(String.format(Locale.ROOT, "      \"rowsPerSecond\": %.1f,%n", s.getRowsPerSecond()));
+            sb.append(String.format(Locale.ROOT, "      \"allocatedBytes\": %d,%n", s.getAllocatedBytes()));
+            sb.append(String.format(Locale.ROOT, "      \"gcPauseMillis\": %d,%n", s.getGcPauseMillis()));
+            sb.append(String.format(Locale.ROOT, "      \"gcCount\": %d,%n", s.getGcCount()));
+            sb.append("      \"batchLatency\": ").append(histogramJson(s.getBatchLatency())).append(",\n");
+            sb.append("      \"commitLatency\": ").append(histogramJson(s.getCommitLatency())).append("\n");
+            sb.append("    }");
+        }
+        sb.append(all.isEmpty() ? "]" : "\n  ]");
+
+        Map<String, Double> values = readGauges();
+        sb.append(",\n  \"gauges\": {");
+        int n = 0;
+        for (Map.Entry<String, Double> e : values.entrySet()) {
+            sb.append(n++ == 0 ? "\n" : ",\n");
+            sb.append(String.format(Locale.ROOT, "    \"%s\": %s", e.getKey(), formatGauge(e.getValue())));
+        }
+        sb.append(values.isEmpty() ? "}\n}\n" : "\n  }\n}\n");
+        return sb.toString();
+    }
+
+    public void writeJson(String filename) {
+        try (FileWriter fw = new FileWriter(filename)) {
+            fw.write(toJson());
+            System.out.printf("[MetricsRegistry] Metrics saved to: %s%n", filename);
+        } catch (IOException e) {
+            System.err.println("[MetricsRegistry] Could not write metrics: " + e.getMessage());
+        }
+    }
+
+    private static String formatGauge(double value) {
+        return value == Math.rint(value) && Math.abs(value) < 1e15
+                ? String.valueOf((long) value)
+                : String.format(Locale.ROOT, "%.4f", value);
+    }
+
+    private static String histogramJson(LatencyHistogram h) {
+        return String.format(Locale.ROOT,
+                "{\"count\": %d, \"meanMillis\": %.3f, \"p50Millis\": %.3f, \"p90Millis\": %.3f, "
+                        + "\"p99Millis\": %.3f, \"maxMillis\": %.3f}",
+                h.getCount(), h.getMeanNanos() / 1e6, h.percentileNanos(50) / 1e6,
+                h.percentileNanos(90) / 1e6, h.percentileNanos(99) / 1e6, h.getMaxNanos() / 1e6);
+    }
+
+    public static void setJmxEnabled(boolean enabled) {
+        jmxEnabled = enabled;
+    }
+
+    public static boolean isJmxEnabled() {
+        return jmxEnabled;
+    }
+
+    private static void registerMBean(StageMetrics metrics) {
+        register("Stage", metrics.getName(), metrics);
+    }
+
+    /**
+     * Registers an MBean as {@code com.etl:type=<type>,name=<name>}, replacing any earlier one.
+     * Does nothing when JMX is disabled.
+     */
+    public static void register(String type, String name, Object mbean) {
+        if (!jmxEnabled) return;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (Exception e) {
+            System.err.println("[MetricsRegistry] Could not register JMX bean for " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.etl.metrics;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Counters and latency histograms for one pipeline stage.
+ *
+ * A stage is measured between {@link #start()} and {@link #stop(long, long)} on
+ * the thread that runs it. Each start/stop span counts as one batch; stages
+ * that run repeatedly (e.g. one batch per file) accumulate across spans.
+ *
+ * Allocation comes from the per-thread allocation counter of the HotSpot
+ * ThreadMXBean, so a span only sees the calling thread; stages that hand work
+ * to other threads add those threads' figures with {@link #addAllocatedBytes(long)}.
+ * GC figures are the collection-time deltas reported by the
+ * garbage collector MXBeans over the span, so they cover pauses caused by any
+ * thread while the stage was running.
+ */
+public class StageMetrics implements StageMetricsMBean {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final LatencyHistogram commitLatency = new LatencyHistogram();
+
+    private long recordsIn;
+    private long recordsOut;
+    private long elapsedNanos;
+    private long allocatedBytes;
+    private long gcPauseMillis;
+    private long gcCount;
+
+    private long spanStartNanos;
+    private long spanStartAllocated;
+    private long spanStartGcMillis;
+    private long spanStartGcCount;
+
+    StageMetrics(String name) {
+        this.name = name;
+    }
+
+    public synchronized void start() {
+        spanStartAllocated = currentThreadAllocatedBytes();
+        spanStartGcMillis = totalGcMillis();
+        spanStartGcCount = totalGcCount();
+        spanStartNanos = System.nanoTime();
+    }
+
+    public synchronized void stop(long in, long out) {
+        long spanNanos = System.nanoTime() - spanStartNanos;
+        elapsedNanos += spanNanos;
+        batchLatency.record(spanNanos);
+        recordsIn += in;
+        recordsOut += out;
+
+        long allocated = currentThreadAllocatedBytes();
+        if (allocated >= 0 && spanStartAllocated >= 0) {
+            allocatedBytes += allocated - spanStartAllocated;
+        }
+        gcPauseMillis += totalGcMillis() - spanStartGcMillis;
+        gcCount += totalGcCount() - spanStartGcCount;
+    }
+
+    /**
+     * Adds a span measured by the caller, e.g. a stage timed inside a fused
+     * pass; counts as one batch but carries no allocation or GC figures.
+     */
+    public synchronized void record(long nanos, long in, long out) {
+        elapsedNanos += nanos;
+        batchLatency.record(nanos);
+        recordsIn += in;
+        recordsOut += out;
+    }
+
+    public void recordCommit(long nanos) {
+        commitLatency.record(nanos);
+    }
+
+    public LatencyHistogram getBatchLatency() { return batchLatency; }
+    public LatencyHistogram getCommitLatency() { return commitLatency; }
+
+    @Override public String getName() { return name; }
+    @Override public synchronized long getRecordsIn() { return recordsIn; }
+    @Override public synchronized long getRecordsOut() { return recordsOut; }
+    @Override public synchronized long getElapsedMillis() { return elapsedNanos / 1_000_000; }
+    @Override public synchronized long getAllocatedBytes() { return allocatedBytes; }
+    @Override public synchronized long getGcPauseMillis() { return gcPauseMillis; }
+    @Override public synchronized long getGcCount() { return gcCount; }
+
+    @Override
+    public synchronized double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : recordsOut * 1e9 / elapsedNanos;
+    }
+
+    @Override public long getBatchCount() { return batchLatency.getCount(); }
+    @Override public double getBatchLatencyP50Millis() { return batchLatency.percentileNanos(50) / 1e6; }
+    @Override public double getBatchLatencyP99Millis() { return batchLatency.percentileNanos(99) / 1e6; }
+    @Override public long getCommitCount() { return commitLatency.getCount(); }
+    /**
+     * Adds allocation measured on another thread, e.g. a reader worker.
+     */
+    public synchronized void addAllocatedBytes(long bytes) {
+        allocatedBytes += bytes;
+    }
+
+    @Override public double getCommitLatencyP50Millis() { return commitLatency.percentileNanos(50) / 1e6; }
+    @Override public double getCommitLatencyP99Millis() { return commitLatency.percentileNanos(99) / 1e6; }
+
+    /** Bytes allocated so far by the calling thread, or -1 if the JVM cannot tell. */
+    public static long currentThreadAllocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean hotspot
+                && hotspot.isThreadAllocatedMemorySupported()
+                && hotspot.isThreadAllocatedMemoryEnabled()) {
+            return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1;
+    }
+
+    private static long totalGcMillis() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionTime());
+        }
+        return total;
+    }
+
+    private static long totalGcCount() {
+        long total = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            total += Math.max(0, gc.getCollectionCount());
+        }
+        return total;
+    }
+}
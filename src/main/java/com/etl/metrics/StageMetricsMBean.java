@@ -0,0 +1,21 @@
+package com.etl.metrics;
+
+/**
+ * JMX view of a single pipeline stage, registered as {@code com.etl:type=Stage,name=<stage>}.
+ */
+public interface StageMetricsMBean {
+    String getName();
+    long getRecordsIn();
+    long getRecordsOut();
+    long getElapsedMillis();
+    double getRowsPerSecond();
+    long getAllocatedBytes();
+    long getGcPauseMillis();
+    long getGcCount();
+    long getBatchCount();
+    double getBatchLatencyP50Millis();
+    double getBatchLatencyP99Millis();
+    long getCommitCount();
+    double getCommitLatencyP50Millis();
+    double getCommitLatencyP99Millis();
+}
@@ -0,0 +1,39 @@
+package com.etl.metrics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures how long the JVM took to get from process start to the first
+ * parsed input row — the latency a short run actually pays before any work
+ * is done. Each reader calls {@link #markFirstRow()} when it parses its
+ * first record; only the first call in the process records anything.
+ */
+public final class StartupClock {
+
+    private static volatile long firstRowMillis = -1;
+
+    private StartupClock() {}
+
+    public static void markFirstRow() {
+        if (firstRowMillis < 0) {
+            synchronized (StartupClock.class) {
+                if (firstRowMillis < 0) {
+                    firstRowMillis = sinceJvmStart();
+                }
+            }
+        }
+    }
+
+    /** Milliseconds from JVM start to the first row, or -1 if no row has been read yet. */
+    public static long getFirstRowMillis() {
+        return firstRowMillis;
+    }
+
+    public static long sinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+    }
+
+    static void reset() {
+        firstRowMillis = -1;
+    }
+}
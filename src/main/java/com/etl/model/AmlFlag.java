@@ -0,0 +1,23 @@
+package com.etl.model;
+
+/**
+ * AML/fraud review flags, stored as bits of {@code aml_flags}.
+ * "All LARGE_CASH_TRANSACTION rows" is {@code aml_flags <> 0 AND aml_flags & 1},
+ * which the partial index on flagged rows can answer.
+ */
+public enum AmlFlag {
+    LARGE_CASH_TRANSACTION(1),
+    HIGH_RISK_COUNTRY(1 << 1),
+    POTENTIAL_STRUCTURING(1 << 2),
+    LARGE_WIRE_TRANSFER(1 << 3);
+
+    private final int bit;
+
+    AmlFlag(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() { return bit; }
+
+    public boolean isSet(int mask) { return (mask & bit) != 0; }
+}
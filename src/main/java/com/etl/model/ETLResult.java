@@ -9,8 +9,13 @@ public class ETLResult {
     private int totalRejected;
     private int totalLoaded;
     private int totalFlagged;
+    private int totalSuspectedDuplicates;
+    private int totalQuarantined;
+    private int totalDuplicatesRemoved;
+    private int totalCurrencyConversions;
     private List<String> rejectedRows = new ArrayList<>();
     private List<String> warnings = new ArrayList<>();
+    private List<FileStats> fileStats = new ArrayList<>();
 
     public int getTotalRead() { return totalRead; }
     public void setTotalRead(int totalRead) { this.totalRead = totalRead; }
@@ -27,9 +32,43 @@ public class ETLResult {
     public int getTotalFlagged() { return totalFlagged; }
     public void setTotalFlagged(int totalFlagged) { this.totalFlagged = totalFlagged; }
 
+    public int getTotalSuspectedDuplicates() { return totalSuspectedDuplicates; }
+    public void setTotalSuspectedDuplicates(int totalSuspectedDuplicates) { this.totalSuspectedDuplicates = totalSuspectedDuplicates; }
+
+    public int getTotalQuarantined() { return totalQuarantined; }
+    public void setTotalQuarantined(int totalQuarantined) { this.totalQuarantined = totalQuarantined; }
+
+    public int getTotalDuplicatesRemoved() { return totalDuplicatesRemoved; }
+    public void setTotalDuplicatesRemoved(int totalDuplicatesRemoved) { this.totalDuplicatesRemoved = totalDuplicatesRemoved; }
+
+    public int getTotalCurrencyConversions() { return totalCurrencyConversions; }
+    public void setTotalCurrencyConversions(int totalCurrencyConversions) { this.totalCurrencyConversions = totalCurrencyConversions; }
+
     public List<String> getRejectedRows() { return rejectedRows; }
     public void addRejectedRow(String row) { this.rejectedRows.add(row); }
 
     public List<String> getWarnings() { return warnings; }
     public void addWarning(String warning) { this.warnings.add(warning); }
+
+    public List<FileStats> getFileStats() { return fileStats; }
+    public void addFileStats(FileStats stats) { this.fileStats.add(stats); }
+
+    /**
+     * Adds another run's totals to these and appends its rows, warnings and
+     * file stats (e.g. combining the shards of a coordinated run).
+     */
+    public void merge(ETLResult other) {
+        totalRead += other.totalRead;
+        totalCleaned += other.totalCleaned;
+        totalRejected += other.totalRejected;
+        totalLoaded += other.totalLoaded;
+        totalFlagged += other.totalFlagged;
+        totalSuspectedDuplicates += other.totalSuspectedDuplicates;
+        totalQuarantined += other.totalQuarantined;
+        totalDuplicatesRemoved += other.totalDuplicatesRemoved;
+        totalCurrencyConversions += other.totalCurrencyConversions;
+        rejectedRows.addAll(other.rejectedRows);
+        warnings.addAll(other.warnings);
+        fileStats.addAll(other.fileStats);
+    }
 }
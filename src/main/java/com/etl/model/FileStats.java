@@ -0,0 +1,32 @@
+package com.etl.model;
+
+/**
+ * Per-input-file extraction statistics.
+ */
+public class FileStats {
+    private final String file;
+    private final long bytesOnDisk;
+    private final int recordsRead;
+    private final int rowsSkipped;
+    private final long elapsedMillis;
+
+    public FileStats(String file, long bytesOnDisk, int recordsRead, int rowsSkipped, long elapsedMillis) {
+        this.file = file;
+        this.bytesOnDisk = bytesOnDisk;
+        this.recordsRead = recordsRead;
+        this.rowsSkipped = rowsSkipped;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public String getFile() { return file; }
+    public long getBytesOnDisk() { return bytesOnDisk; }
+    public int getRecordsRead() { return recordsRead; }
+    public int getRowsSkipped() { return rowsSkipped; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d records, %d skipped, %,d bytes, %d ms",
+                file, recordsRead, rowsSkipped, bytesOnDisk, elapsedMillis);
+    }
+}
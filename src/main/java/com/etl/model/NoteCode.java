@@ -0,0 +1,27 @@
+package com.etl.model;
+
+/**
+ * Cleansing/transformation notes, stored as bits of {@code note_codes}.
+ * Parameterized notes take their values from typed fields on the record
+ * (source currency + rate, duplicate-of ID).
+ */
+public enum NoteCode {
+    NAME_NORMALIZED(1, "Name normalized"),
+    PHONE_NORMALIZED(1 << 1, "Phone normalized"),
+    PHONE_UNKNOWN(1 << 2, "Phone unparseable, set to UNKNOWN"),
+    CURRENCY_CONVERTED(1 << 3, "Converted from"),
+    SUSPECTED_DUPLICATE(1 << 4, "SUSPECTED_DUPLICATE of");
+
+    private final int bit;
+    private final String label;
+
+    NoteCode(int bit, String label) {
+        this.bit = bit;
+        this.label = label;
+    }
+
+    public int bit() { return bit; }
+    public String label() { return label; }
+
+    public boolean isSet(int mask) { return (mask & bit) != 0; }
+}
@@ -0,0 +1,75 @@
+package com.etl.model;
+
+import java.util.Locale;
+
+/**
+ * Renders note codes and AML flags as the human-readable text that used to
+ * be stored in {@code cleansing_notes}, e.g.
+ * {@code Name normalized; Converted from EUR (rate=1.0800); FLAGS: HIGH_RISK_COUNTRY;}
+ *
+ * {@link #render} is the Java decoder; {@link #sqlExpression()} builds the
+ * equivalent SQLite expression used by the {@code transactions_readable} view.
+ * Both are generated from the enums so they cannot drift apart.
+ */
+public final class Notes {
+
+    private Notes() {}
+
+    public static String render(Transaction t) {
+        return render(t.getNoteCodes(), t.getAmlFlags(), t.getSourceCurrency(), t.getFxRate(), t.getDuplicateOf());
+    }
+
+    public static String render(int noteCodes, int amlFlags, String sourceCurrency, double fxRate, String duplicateOf) {
+        if (noteCodes == 0 && amlFlags == 0) return "";
+
+        StringBuilder sb = new StringBuilder(64);
+        for (NoteCode code : NoteCode.values()) {
+            if (!code.isSet(noteCodes) || code == NoteCode.SUSPECTED_DUPLICATE) continue;
+            sb.append(code.label());
+            if (code == NoteCode.CURRENCY_CONVERTED) {
+                sb.append(' ').append(sourceCurrency)
+                  .append(String.format(Locale.ROOT, " (rate=%.4f)", fxRate));
+            }
+            sb.append("; ");
+        }
+        if (amlFlags != 0) {
+            sb.append("FLAGS: ");
+            String sep = "";
+            for (AmlFlag flag : AmlFlag.values()) {
+                if (flag.isSet(amlFlags)) {
+                    sb.append(sep).append(flag.name());
+                    sep = ", ";
+                }
+            }
+            sb.append("; ");
+        }
+        if (NoteCode.SUSPECTED_DUPLICATE.isSet(noteCodes)) {
+            sb.append(NoteCode.SUSPECTED_DUPLICATE.label()).append(' ').append(duplicateOf).append("; ");
+        }
+        return sb.toString().trim();
+    }
+
+    /**
+     * SQLite expression over the columns note_codes, aml_flags, source_currency,
+     * fx_rate and duplicate_of that yields the same text as {@link #render}.
+     */
+    public static String sqlExpression() {
+        StringBuilder sb = new StringBuilder("RTRIM(");
+        for (NoteCode code : NoteCode.values()) {
+            if (code == NoteCode.SUSPECTED_DUPLICATE) continue;
+            String text = code == NoteCode.CURRENCY_CONVERTED
+                    ? "'" + code.label() + " ' || source_currency || ' (rate=' || printf('%.4f', fx_rate) || '); '"
+                    : "'" + code.label() + "; '";
+            sb.append(String.format("CASE WHEN note_codes & %d THEN %s ELSE '' END || ", code.bit(), text));
+        }
+        sb.append("CASE WHEN aml_flags <> 0 THEN 'FLAGS: ' || RTRIM(");
+        for (AmlFlag flag : AmlFlag.values()) {
+            sb.append(String.format("CASE WHEN aml_flags & %d THEN '%s, ' ELSE '' END || ", flag.bit(), flag.name()));
+        }
+        sb.append("'', ', ') || '; ' ELSE '' END || ");
+        sb.append(String.format("CASE WHEN note_codes & %d THEN '%s ' || duplicate_of || '; ' ELSE '' END",
+                NoteCode.SUSPECTED_DUPLICATE.bit(), NoteCode.SUSPECTED_DUPLICATE.label()));
+        sb.append(")");
+        return sb.toString();
+    }
+}
@@ -14,7 +14,14 @@ public class Transaction {
     private String transactionType;
     private String country;
     private boolean flaggedForReview;
-    private String cleansingNotes;
+
+    // Notes and AML flags are bitmasks (see NoteCode / AmlFlag) plus the few
+    // typed parameters they need; Notes.render() produces the readable text.
+    private int noteCodes;
+    private int amlFlags;
+    private String sourceCurrency;
+    private double fxRate;
+    private String duplicateOf;
 
     public Transaction() {}
 
@@ -52,8 +59,28 @@ public class Transaction {
     public boolean isFlaggedForReview() { return flaggedForReview; }
     public void setFlaggedForReview(boolean flaggedForReview) { this.flaggedForReview = flaggedForReview; }
 
-    public String getCleansingNotes() { return cleansingNotes; }
-    public void setCleansingNotes(String cleansingNotes) { this.cleansingNotes = cleansingNotes; }
+    public int getNoteCodes() { return noteCodes; }
+    public void setNoteCodes(int noteCodes) { this.noteCodes = noteCodes; }
+    public void addNote(NoteCode code) { this.noteCodes |= code.bit(); }
+    public boolean hasNote(NoteCode code) { return code.isSet(noteCodes); }
+
+    public int getAmlFlags() { return amlFlags; }
+    public void setAmlFlags(int amlFlags) { this.amlFlags = amlFlags; }
+    public boolean hasFlag(AmlFlag flag) { return flag.isSet(amlFlags); }
+
+    public String getSourceCurrency() { return sourceCurrency; }
+    public void setSourceCurrency(String sourceCurrency) { this.sourceCurrency = sourceCurrency; }
+
+    public double getFxRate() { return fxRate; }
+    public void setFxRate(double fxRate) { this.fxRate = fxRate; }
+
+    public String getDuplicateOf() { return duplicateOf; }
+    public void setDuplicateOf(String duplicateOf) { this.duplicateOf = duplicateOf; }
+
+    /**
+     * Human-readable rendering of the note codes and AML flags.
+     */
+    public String getCleansingNotes() { return Notes.render(this); }
 
     @Override
     public String toString() {
@@ -1,38 +1,74 @@
 package com.etl.reader;
 
+import com.etl.metrics.StartupClock;
 import com.etl.model.Transaction;
 
 import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Path;
+import java.time.DateTimeException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Reads raw transaction data from a CSV file.
  * Handles malformed rows gracefully and logs parse errors.
+ * Columns are bound by header name through a {@link ColumnPlan}, so
+ * reordered or extra upstream columns are handled.
  */
 public class CSVReader {
 
-    private static final DateTimeFormatter[] DATE_FORMATS = {
-        DateTimeFormatter.ofPattern("yyyy-MM-dd"),
-        DateTimeFormatter.ofPattern("MM/dd/yyyy"),
-        DateTimeFormatter.ofPattern("dd-MM-yyyy")
-    };
+    // Built on first use: ISO dates take the fast path in parseDate and never need them.
+    private static final class DateFormats {
+        static final DateTimeFormatter[] ALL = {
+            DateTimeFormatter.ofPattern("yyyy-MM-dd"),
+            DateTimeFormatter.ofPattern("MM/dd/yyyy"),
+            DateTimeFormatter.ofPattern("dd-MM-yyyy")
+        };
+    }
 
     private int skippedRows = 0;
+    private ColumnPlan plan = ColumnPlan.canonical();
 
+    /**
+     * Reads a file as UTF-8, decompressing gzip/zip content (see {@link InputFiles}).
+     */
     public List<Transaction> read(String filePath) throws IOException {
+        return read(InputFiles.openReader(Path.of(filePath)), filePath);
+    }
+
+    /**
+     * Reads CSV from any character source (e.g. a generator stream); closes it when done.
+     */
+    public List<Transaction> read(Reader source, String sourceName) throws IOException {
         List<Transaction> transactions = new ArrayList<>();
+        read(source, sourceName, transactions::add);
+        return transactions;
+    }
+
+    /**
+     * Streams parsed records to {@code sink} instead of collecting them; closes the source when done.
+     *
+     * @return the number of records passed to the sink
+     */
+    public long read(Reader source, String sourceName, Consumer<Transaction> sink) throws IOException {
+        long count = 0;
         skippedRows = 0;
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
-            String headerLine = br.readLine(); // skip header
+        try (BufferedReader br = new BufferedReader(source)) {
+            String headerLine = br.readLine();
             if (headerLine == null) {
-                throw new IOException("CSV file is empty: " + filePath);
+                throw new IOException("CSV file is empty: " + sourceName);
+            }
+            try {
+                plan = ColumnPlan.compile(headerLine);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unusable CSV header in " + sourceName + ": " + e.getMessage(), e);
             }
 
             String line;
@@ -42,55 +78,38 @@ public class CSVReader {
                 lineNumber++;
                 if (line.trim().isEmpty()) continue;
 
+                Transaction t;
                 try {
-                    Transaction t = parseLine(line);
-                    if (t != null) {
-                        transactions.add(t);
-                    }
+                    t = parseLine(line);
                 } catch (Exception e) {
                     System.err.printf("[CSVReader] Skipping malformed row %d: %s | Error: %s%n",
                             lineNumber, line, e.getMessage());
                     skippedRows++;
+                    continue;
+                }
+                if (t != null) {
+                    if (count == 0) StartupClock.markFirstRow();
+                    sink.accept(t);
+                    count++;
                 }
             }
         }
 
         System.out.printf("[CSVReader] Read %d records. Skipped %d malformed rows.%n",
-                transactions.size(), skippedRows);
-        return transactions;
+                count, skippedRows);
+        return count;
     }
 
-    private Transaction parseLine(String line) {
-        // Handle quoted fields containing commas
-        String[] fields = splitCSV(line);
+    // Hot-path helpers below are package-private so the JMH benchmarks can call them directly.
 
-        if (fields.length < 10) {
-            throw new IllegalArgumentException("Insufficient fields: expected 10, got " + fields.length);
-        }
-
-        Transaction t = new Transaction();
-        t.setTransactionId(fields[0].trim());
-        t.setCustomerId(fields[1].trim());
-        t.setFullName(fields[2].trim());
-        t.setPhone(fields[3].trim());
-        t.setEmail(fields[4].trim());
-
-        // Parse amount - may throw NumberFormatException
-        String amountStr = fields[5].trim().replace("$", "").replace(",", "");
-        t.setAmount(Double.parseDouble(amountStr));
-
-        t.setCurrency(fields[6].trim().toUpperCase());
-        t.setTransactionDate(parseDate(fields[7].trim()));
-        t.setTransactionType(fields[8].trim());
-        t.setCountry(fields[9].trim());
-        t.setFlaggedForReview(false);
-        t.setCleansingNotes("");
-
-        return t;
+    Transaction parseLine(String line) {
+        return plan.parse(line);
     }
 
-    private LocalDate parseDate(String dateStr) {
-        for (DateTimeFormatter fmt : DATE_FORMATS) {
+    static LocalDate parseDate(String dateStr) {
+        LocalDate iso = parseIsoDate(dateStr);
+        if (iso != null) return iso;
+        for (DateTimeFormatter fmt : DateFormats.ALL) {
             try {
                 return LocalDate.parse(dateStr, fmt);
             } catch (DateTimeParseException ignored) {}
@@ -98,10 +117,38 @@ public class CSVReader {
         throw new IllegalArgumentException("Unparseable date: " + dateStr);
     }
 
+    /**
+     * Parses a strict {@code yyyy-MM-dd} date without a formatter, or returns
+     * null so the caller falls back to the formatters (which also resolve
+     * out-of-range days such as Feb 30 the way they always have).
+     */
+    private static LocalDate parseIsoDate(String s) {
+        if (s.length() != 10 || s.charAt(4) != '-' || s.charAt(7) != '-') return null;
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 7);
+        int day = digits(s, 8, 10);
+        if (year < 1 || month < 0 || day < 0) return null;
+        try {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static int digits(String s, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return -1;
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
     /**
      * Splits a CSV line respecting quoted fields.
      */
-    private String[] splitCSV(String line) {
+    static String[] splitCSV(String line) {
         List<String> tokens = new ArrayList<>();
         StringBuilder sb = new StringBuilder();
         boolean inQuotes = false;
@@ -0,0 +1,213 @@
+package com.etl.reader;
+
+import com.etl.model.Transaction;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Header-driven mapping from CSV columns to {@link Transaction} fields.
+ *
+ * The header is compiled once into an array indexed by column position that
+ * holds the field binding (setter + converter) for that column, or null for
+ * columns the pipeline does not use. Parsing a row walks the line once:
+ * bound columns are copied out, unbound columns are skipped without building
+ * a string, and scanning stops after the last bound column, so extra columns
+ * in a wide feed cost only a character scan.
+ *
+ * Column names are matched case-insensitively after trimming and mapping
+ * spaces/hyphens to underscores, and each field accepts a few aliases.
+ * Missing required columns fail the file at compile time; missing optional
+ * columns get a default value.
+ */
+public final class ColumnPlan {
+
+    enum Field {
+        TRANSACTION_ID(true, null, (t, v) -> t.setTransactionId(v),
+                "transaction_id", "txn_id", "transactionid", "id"),
+        CUSTOMER_ID(true, null, (t, v) -> t.setCustomerId(v),
+                "customer_id", "cust_id", "customerid", "customer"),
+        FULL_NAME(false, "", (t, v) -> t.setFullName(v),
+                "full_name", "name", "customer_name", "fullname"),
+        PHONE(false, "", (t, v) -> t.setPhone(v),
+                "phone", "phone_number", "telephone", "mobile"),
+        EMAIL(true, null, (t, v) -> t.setEmail(v),
+                "email", "email_address", "e_mail"),
+        AMOUNT(true, null, (t, v) -> t.setAmount(Double.parseDouble(v.replace("$", "").replace(",", ""))),
+                "amount", "amt", "value", "transaction_amount"),
+        CURRENCY(false, "USD", (t, v) -> t.setCurrency(v.toUpperCase()),
+                "currency", "ccy", "currency_code"),
+        DATE(true, null, (t, v) -> t.setTransactionDate(CSVReader.parseDate(v)),
+                "date", "transaction_date", "txn_date", "value_date"),
+        TYPE(false, "", (t, v) -> t.setTransactionType(v),
+                "type", "transaction_type", "txn_type"),
+        COUNTRY(false, "", (t, v) -> t.setCountry(v),
+                "country", "country_code", "iso_country");
+
+        final boolean required;
+        final String defaultValue;
+        final BiConsumer<Transaction, String> setter;
+        final String[] aliases;
+
+        Field(boolean required, String defaultValue, BiConsumer<Transaction, String> setter, String... aliases) {
+            this.required = required;
+            this.defaultValue = defaultValue;
+            this.setter = setter;
+            this.aliases = aliases;
+        }
+    }
+
+    private static final Map<String, Field> ALIASES = new HashMap<>();
+    static {
+        for (Field f : Field.values()) {
+            for (String alias : f.aliases) {
+                ALIASES.put(alias, f);
+            }
+        }
+    }
+
+    /** Plan for the canonical column order written by the upstream feed and the generator. */
+    static ColumnPlan canonical() {
+        return new ColumnPlan(Field.values(), Field.values().length);
+    }
+
+    private final Field[] byColumn;
+    private final int lastUsedColumn;
+    private final int customerColumn;
+    private final Field[] missingOptional;
+    private final StringBuilder scratch = new StringBuilder(64);
+
+    private ColumnPlan(Field[] byColumn, int columnCount) {
+        this.byColumn = byColumn;
+        int last = -1;
+        EnumSet<Field> present = EnumSet.noneOf(Field.class);
+        for (int i = 0; i < columnCount; i++) {
+            if (byColumn[i] != null) {
+                last = i;
+                present.add(byColumn[i]);
+            }
+        }
+        this.lastUsedColumn = last;
+        this.customerColumn = Arrays.asList(byColumn).indexOf(Field.CUSTOMER_ID);
+        this.missingOptional = EnumSet.complementOf(present).toArray(new Field[0]);
+    }
+
+    /**
+     * Compiles a header line into a plan.
+     *
+     * @throws IllegalArgumentException if a required column is missing or two
+     *         columns map to the same field
+     */
+    public static ColumnPlan compile(String headerLine) {
+        String[] names = CSVReader.splitCSV(headerLine.startsWith("\uFEFF") ? headerLine.substring(1) : headerLine);
+        Field[] byColumn = new Field[names.length];
+        EnumMap<Field, Integer> seen = new EnumMap<>(Field.class);
+
+        for (int i = 0; i < names.length; i++) {
+            Field f = ALIASES.get(normalize(names[i]));
+            if (f == null) continue;
+            Integer previous = seen.put(f, i);
+            if (previous != null) {
+                throw new IllegalArgumentException(String.format(
+                        "Columns '%s' and '%s' both map to %s", names[previous].trim(), names[i].trim(), f));
+            }
+            byColumn[i] = f;
+        }
+
+        List<String> missing = new ArrayList<>();
+        for (Field f : Field.values()) {
+            if (f.required && !seen.containsKey(f)) {
+                missing.add(f.aliases[0]);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Missing required column(s): " + String.join(", ", missing));
+        }
+        return new ColumnPlan(byColumn, names.length);
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT).replace(' ', '_').replace('-', '_');
+    }
+
+    /**
+     * Parses one data line. Not thread-safe: a plan belongs to one reader.
+     */
+    Transaction parse(String line) {
+        Transaction t = new Transaction();
+        for (Field f : missingOptional) {
+            if (!f.required) f.setter.accept(t, f.defaultValue);
+        }
+
+        int len = line.length();
+        int pos = 0;
+        for (int col = 0; col <= lastUsedColumn; col++) {
+            if (pos > len) {
+                throw new IllegalArgumentException(
+                        "Insufficient fields: expected " + (lastUsedColumn + 1) + ", got " + col);
+            }
+            Field f = byColumn[col];
+            if (f == null) {
+                pos = skipField(line, pos) + 1;
+            } else {
+                scratch.setLength(0);
+                pos = readField(line, pos, scratch) + 1;
+                f.setter.accept(t, scratch.toString().trim());
+            }
+        }
+
+        t.setFlaggedForReview(false);
+        return t;
+    }
+
+    /**
+     * The trimmed customer ID of a data line, without parsing the rest of the
+     * row; null if the row ends before the customer column. Used to route raw
+     * rows to partitions.
+     */
+    public String customerId(String line) {
+        int pos = 0;
+        for (int col = 0; col < customerColumn; col++) {
+            if (pos > line.length()) return null;
+            pos = skipField(line, pos) + 1;
+        }
+        if (pos > line.length()) return null;
+        StringBuilder out = new StringBuilder(16);
+        readField(line, pos, out);
+        return out.toString().trim();
+    }
+
+    /** Copies one field (quotes removed) into {@code out}; returns the index of its terminating comma or EOL. */
+    private static int readField(String line, int pos, StringBuilder out) {
+        boolean inQuotes = false;
+        int len = line.length();
+        for (; pos < len; pos++) {
+            char c = line.charAt(pos);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                return pos;
+            } else {
+                out.append(c);
+            }
+        }
+        return len;
+    }
+
+    private static int skipField(String line, int pos) {
+        boolean inQuotes = false;
+        int len = line.length();
+        for (; pos < len; pos++) {
+            char c = line.charAt(pos);
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (c == ',' && !inQuotes) {
+                return pos;
+            }
+        }
+        return len;
+    }
+
+    int getColumnCount() { return byColumn.length; }
+    int getLastUsedColumn() { return lastUsedColumn; }
+}
@@ -0,0 +1,177 @@
+package com.etl.reader;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Resolves input specs to files and opens them as decoded UTF-8 text.
+ *
+ * An input spec may be:
+ *   - a single file                data/transactions.csv
+ *   - a directory                  data/incoming/        (all regular files, sorted by name)
+ *   - a glob                       data/incoming/part-*.csv.gz
+ *   - a manifest, prefixed by '@'  @data/manifest.txt    (one path per line, '#' comments)
+ *   - several of the above, comma-separated (commas inside a {a,b} glob group do not split)
+ *
+ * Compression is detected from the magic bytes rather than the extension:
+ * gzip (including multi-member files) and zip (first entry) are decompressed
+ * as a stream; anything else is read as plain text.
+ */
+public final class InputFiles {
+
+    private static final int IO_BUFFER = 64 * 1024;
+
+    private InputFiles() {}
+
+    public static List<Path> resolve(String spec) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (String part : splitSpec(spec)) {
+            String item = part.trim();
+            if (item.isEmpty()) continue;
+            if (item.startsWith("@")) {
+                files.addAll(readManifest(Path.of(item.substring(1))));
+            } else if (isGlob(item)) {
+                files.addAll(expandGlob(item));
+            } else {
+                Path path = Path.of(item);
+                if (Files.isDirectory(path)) {
+                    try (Stream<Path> entries = Files.list(path)) {
+                        entries.filter(Files::isRegularFile)
+                                .filter(p -> !p.getFileName().toString().startsWith("."))
+                                .sorted()
+                                .forEach(files::add);
+                    }
+                } else if (Files.isRegularFile(path)) {
+                    files.add(path);
+                } else {
+                    throw new IOException("Input not found: " + item);
+                }
+            }
+        }
+        if (files.isEmpty()) {
+            throw new IOException("No input files matched: " + spec);
+        }
+        return files;
+    }
+
+    /**
+     * Opens a file as UTF-8 text, transparently decompressing gzip or zip content.
+     */
+    public static BufferedReader openReader(Path file) throws IOException {
+        return new BufferedReader(new InputStreamReader(openStream(file), StandardCharsets.UTF_8), IO_BUFFER);
+    }
+
+    public static InputStream openStream(Path file) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(file), IO_BUFFER);
+        try {
+            in.mark(4);
+            int b0 = in.read();
+            int b1 = in.read();
+            in.reset();
+
+            if (b0 == 0x1f && b1 == 0x8b) {
+                return new GZIPInputStream(in, IO_BUFFER);
+            }
+            if (b0 == 'P' && b1 == 'K') {
+                ZipInputStream zip = new ZipInputStream(in, StandardCharsets.UTF_8);
+                ZipEntry entry = zip.getNextEntry();
+                while (entry != null && entry.isDirectory()) {
+                    entry = zip.getNextEntry();
+                }
+                if (entry == null) {
+                    throw new IOException("Zip archive has no file entries: " + file);
+                }
+                return zip;
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Splits a spec on commas that are not inside a glob {...} group.
+     */
+    static List<String> splitSpec(String spec) {
+        List<String> parts = new ArrayList<>();
+        int depth = 0;
+        int start = 0;
+        for (int i = 0; i < spec.length(); i++) {
+            char c = spec.charAt(i);
+            if (c == '{') {
+                depth++;
+            } else if (c == '}' && depth > 0) {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                parts.add(spec.substring(start, i));
+                start = i + 1;
+            }
+        }
+        parts.add(spec.substring(start));
+        return parts;
+    }
+
+    private static boolean isGlob(String item) {
+        return item.indexOf('*') >= 0 || item.indexOf('?') >= 0 || item.indexOf('[') >= 0 || item.indexOf('{') >= 0;
+    }
+
+    /**
+     * Walks from the longest wildcard-free directory prefix and matches the rest.
+     */
+    private static List<Path> expandGlob(String glob) throws IOException {
+        Path pattern = Path.of(glob);
+        Path prefix = pattern.isAbsolute() ? pattern.getRoot() : Path.of("");
+        int fixed = 0;
+        for (Path element : pattern) {
+            if (isGlob(element.toString()) || fixed == pattern.getNameCount() - 1) break;
+            prefix = prefix.resolve(element);
+            fixed++;
+        }
+        Path base = prefix;
+        Path walkRoot = base.toString().isEmpty() ? Path.of(".") : base;
+        String remaining = pattern.subpath(fixed, pattern.getNameCount()).toString();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + remaining);
+        int depth = remaining.contains("**") ? Integer.MAX_VALUE : pattern.getNameCount() - fixed;
+
+        List<Path> matches = new ArrayList<>();
+        if (!Files.isDirectory(walkRoot)) return matches;
+        Files.walkFileTree(walkRoot, EnumSet.noneOf(FileVisitOption.class), depth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                Path relative = walkRoot.relativize(file);
+                if (attrs.isRegularFile() && matcher.matches(relative)) {
+                    matches.add(base.resolve(relative));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        matches.sort(null);
+        return matches;
+    }
+
+    private static List<Path> readManifest(Path manifest) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path dir = manifest.toAbsolutePath().getParent();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            String entry = line.trim();
+            if (entry.isEmpty() || entry.startsWith("#")) continue;
+            Path path = Path.of(entry);
+            files.add(path.isAbsolute() ? path : dir.resolve(path));
+        }
+        return files;
+    }
+}
@@ -0,0 +1,146 @@
+package com.etl.reader;
+
+import com.etl.governor.MemoryGovernor;
+import com.etl.metrics.StageMetrics;
+import com.etl.model.FileStats;
+import com.etl.model.Transaction;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Extracts many input files in parallel, one file per worker thread.
+ *
+ * Each file gets its own {@link CSVReader}, so decompression, UTF-8 decoding
+ * and parsing all scale with the number of threads. Records are returned in
+ * input-file order regardless of which file finishes first. Each worker
+ * measures its own allocation; the total is available from
+ * {@link #getAllocatedBytes()} for the caller's reader stage.
+ *
+ * With a {@link MemoryGovernor} attached, the records read but not yet
+ * returned are published as the {@code reader.buffered} queue, and a worker
+ * that finds the heap above the watermark before starting a file fails the
+ * read: nothing consumes records until every file is in, so the run could
+ * only end in an OutOfMemoryError. Such inputs belong in external-memory
+ * mode ({@code -Detl.memoryBudgetMb}).
+ */
+public class MultiFileReader {
+
+    private final int threads;
+    private final List<FileStats> fileStats = new ArrayList<>();
+    private int skippedRows = 0;
+    private final AtomicLong bufferedRecords = new AtomicLong();
+    private final AtomicLong allocatedBytes = new AtomicLong();
+    private MemoryGovernor governor;
+
+    public MultiFileReader() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public MultiFileReader(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    public void setGovernor(MemoryGovernor governor) {
+        this.governor = governor;
+        governor.registerQueue("reader.buffered", bufferedRecords::get);
+    }
+
+    public List<Transaction> read(List<Path> files) throws IOException {
+        fileStats.clear();
+        skippedRows = 0;
+        allocatedBytes.set(0);
+
+        int poolSize = Math.min(threads, files.size());
+        ExecutorService pool = Executors.newFixedThreadPool(poolSize, r -> {
+            Thread t = new Thread(r, "etl-reader");
+            t.setDaemon(true);
+            return t;
+        });
+
+        try {
+            List<Future<FileResult>> futures = new ArrayList<>(files.size());
+            for (Path file : files) {
+                futures.add(pool.submit(() -> readOne(file)));
+            }
+
+            List<FileResult> results = new ArrayList<>(files.size());
+            int total = 0;
+            for (Future<FileResult> future : futures) {
+                FileResult result = await(future);
+                results.add(result);
+                total += result.rows.size();
+            }
+
+            List<Transaction> transactions = new ArrayList<>(total);
+            for (FileResult result : results) {
+                transactions.addAll(result.rows);
+                fileStats.add(result.stats);
+                skippedRows += result.stats.getRowsSkipped();
+            }
+
+            System.out.printf("[MultiFileReader] Read %d records from %d files on %d threads. Skipped %d malformed rows.%n",
+                    transactions.size(), files.size(), poolSize, skippedRows);
+            return transactions;
+        } finally {
+            bufferedRecords.set(0);
+            pool.shutdownNow();
+        }
+    }
+
+    private FileResult readOne(Path file) throws IOException {
+        if (governor != null && governor.underPressureAfterCollection()) {
+            throw new IOException(String.format(Locale.ROOT,
+                    "Heap %.0f%% full (watermark %.0f%%) with %d records read, before %s; batch mode keeps the "
+                            + "whole input in memory; rerun with -Detl.memoryBudgetMb=<MB> to stream it through disk",
+                    governor.getHeapOccupancy() * 100, governor.getHighWatermark() * 100,
+                    bufferedRecords.get(), file));
+        }
+        long start = System.nanoTime();
+        long allocatedBefore = StageMetrics.currentThreadAllocatedBytes();
+        CSVReader reader = new CSVReader();
+        List<Transaction> rows = reader.read(file.toString());
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long allocatedAfter = StageMetrics.currentThreadAllocatedBytes();
+        if (allocatedBefore >= 0 && allocatedAfter >= 0) {
+            allocatedBytes.addAndGet(allocatedAfter - allocatedBefore);
+        }
+        bufferedRecords.addAndGet(rows.size());
+        return new FileResult(rows, new FileStats(file.toString(), Files.size(file), rows.size(),
+                reader.getSkippedRows(), millis));
+    }
+
+    private static FileResult await(Future<FileResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading input files", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) throw io;
+            throw new IOException("Failed to read input file: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    private static final class FileResult {
+        final List<Transaction> rows;
+        final FileStats stats;
+
+        FileResult(List<Transaction> rows, FileStats stats) {
+            this.rows = rows;
+            this.stats = stats;
+        }
+    }
+
+    public List<FileStats> getFileStats() { return fileStats; }
+    public int getSkippedRows() { return skippedRows; }
+
+    /** Bytes allocated by the worker threads during the last {@link #read(List)}, or 0 if not measurable. */
+    public long getAllocatedBytes() { return allocatedBytes.get(); }
+}
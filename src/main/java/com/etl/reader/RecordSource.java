@@ -0,0 +1,16 @@
+package com.etl.reader;
+
+import com.etl.model.Transaction;
+
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * A stream of extracted records that is pushed to a sink rather than
+ * collected, for runs that must not hold the whole input in memory.
+ */
+@FunctionalInterface
+public interface RecordSource {
+
+    void forEach(Consumer<Transaction> sink) throws IOException;
+}
@@ -1,5 +1,7 @@
 package com.etl.reporter;
 
+import com.etl.metrics.MetricsRegistry;
+import com.etl.model.AmlFlag;
 import com.etl.model.ETLResult;
 import com.etl.model.Transaction;
 
@@ -9,8 +11,6 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 
 /**
  * Generates a human-readable data quality report after the ETL run.
@@ -18,9 +18,19 @@ import java.util.stream.Collectors;
  */
 public class QualityReporter {
 
+    private final LocalDateTime runTime = LocalDateTime.now();
+    private final String fileStamp = runTime.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+
     public void printReport(ETLResult result, List<Transaction> loaded) {
+        printReport(result, QualityStats.of(loaded));
+    }
+
+    /**
+     * Report from streamed aggregates, for runs that did not keep the loaded records.
+     */
+    public void printReport(ETLResult result, QualityStats stats) {
         StringBuilder sb = new StringBuilder();
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+        String timestamp = runTime.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
 
         sb.append("\n+==================================================+\n");
         sb.append("|        ETL PIPELINE - DATA QUALITY REPORT       |\n");
@@ -32,54 +42,68 @@ public class QualityReporter {
         sb.append(String.format("  Records rejected : %d%n", result.getTotalRejected()));
         sb.append(String.format("  Records loaded   : %d%n", result.getTotalLoaded()));
         sb.append(String.format("  Records flagged  : %d%n", result.getTotalFlagged()));
+        sb.append(String.format("  Near-duplicates  : %d (quarantined: %d)%n",
+                result.getTotalSuspectedDuplicates(), result.getTotalQuarantined()));
 
         double passRate = result.getTotalRead() > 0
                 ? (result.getTotalLoaded() * 100.0 / result.getTotalRead()) : 0;
         sb.append(String.format("  Pass rate        : %.1f%%%n", passRate));
 
-        if (!loaded.isEmpty()) {
+        if (result.getFileStats().size() > 1) {
+            sb.append("\n--- INPUT FILES ---------------------------------------------\n");
+            result.getFileStats().stream().limit(20)
+                    .forEach(f -> sb.append("  - ").append(f).append("\n"));
+            if (result.getFileStats().size() > 20) {
+                sb.append(String.format("  ... and %d more.%n", result.getFileStats().size() - 20));
+            }
+        }
+
+        if (stats.getCount() > 0) {
             sb.append("\n--- TRANSACTION BREAKDOWN -----------------------------------\n");
 
             // By type
-            Map<String, Long> byType = loaded.stream()
-                    .collect(Collectors.groupingBy(Transaction::getTransactionType, TreeMap::new, Collectors.counting()));
             sb.append("  By Transaction Type:\n");
-            byType.forEach((k, v) -> sb.append(String.format("    %-20s : %d%n", k, v)));
+            stats.getByType().forEach((k, v) -> sb.append(String.format("    %-20s : %d%n", k, v)));
 
             // By country (top 5)
             sb.append("  Top 5 Countries:\n");
-            loaded.stream()
-                    .collect(Collectors.groupingBy(Transaction::getCountry, Collectors.counting()))
-                    .entrySet().stream()
+            stats.getByCountry().entrySet().stream()
                     .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
                     .limit(5)
                     .forEach(e -> sb.append(String.format("    %-20s : %d%n", e.getKey(), e.getValue())));
 
-            // Volume stats
-            double totalVolume = loaded.stream().mapToDouble(Transaction::getAmount).sum();
-            double avgAmount = loaded.stream().mapToDouble(Transaction::getAmount).average().orElse(0);
-            double maxAmount = loaded.stream().mapToDouble(Transaction::getAmount).max().orElse(0);
+            // AML flags (bit counts; a row can carry several)
+            sb.append("  AML Flags:\n");
+            for (AmlFlag flag : AmlFlag.values()) {
+                sb.append(String.format("    %-24s : %d%n", flag, stats.getFlagCount(flag)));
+            }
 
             sb.append("\n--- FINANCIAL SUMMARY (USD) ---------------------------------\n");
-            sb.append(String.format("  Total volume : $%,15.2f%n", totalVolume));
-            sb.append(String.format("  Average txn  : $%,15.2f%n", avgAmount));
-            sb.append(String.format("  Largest txn  : $%,15.2f%n", maxAmount));
+            sb.append(String.format("  Total volume : $%,15.2f%n", stats.getTotalVolume()));
+            sb.append(String.format("  Average txn  : $%,15.2f%n", stats.getAverageAmount()));
+            sb.append(String.format("  Largest txn  : $%,15.2f%n", stats.getMaxAmount()));
         }
 
         if (!result.getRejectedRows().isEmpty()) {
             sb.append("\n--- REJECTION REASONS ---------------------------------------\n");
             result.getRejectedRows().stream().limit(10)
                     .forEach(r -> sb.append("  - ").append(r).append("\n"));
-            if (result.getRejectedRows().size() > 10) {
-                sb.append(String.format("  ... and %d more.%n", result.getRejectedRows().size() - 10));
+            if (result.getTotalRejected() > 10) {
+                sb.append(String.format("  ... and %d more.%n", result.getTotalRejected() - 10));
             }
         }
 
         sb.append("\n=====================================================\n");
 
         System.out.println(sb);
-        writeToFile(sb.toString(), "etl_report_" +
-                LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss")) + ".txt");
+        writeToFile(sb.toString(), "etl_report_" + fileStamp + ".txt");
+    }
+
+    /**
+     * Writes per-stage metrics as JSON next to the text report of the same run.
+     */
+    public void writeMetrics(MetricsRegistry metrics) {
+        metrics.writeJson("etl_metrics_" + fileStamp + ".json");
     }
 
     private void writeToFile(String content, String filename) {
@@ -0,0 +1,95 @@
+package com.etl.reporter;
+
+import com.etl.model.AmlFlag;
+import com.etl.model.Transaction;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Running aggregates behind the transaction breakdown and financial summary
+ * of the quality report. Memory depends only on the number of distinct
+ * transaction types and countries, so records can be added as they stream
+ * past instead of being kept for the report.
+ */
+public class QualityStats {
+
+    private long count = 0;
+    private double totalVolume = 0;
+    private double maxAmount = 0;
+    private final Map<String, Long> byType = new TreeMap<>();
+    private final Map<String, Long> byCountry = new HashMap<>();
+    private final long[] flagCounts = new long[AmlFlag.values().length];
+
+    public static QualityStats of(List<Transaction> loaded) {
+        QualityStats stats = new QualityStats();
+        loaded.forEach(stats::add);
+        return stats;
+    }
+
+    public void add(Transaction t) {
+        count++;
+        totalVolume += t.getAmount();
+        maxAmount = count == 1 ? t.getAmount() : Math.max(maxAmount, t.getAmount());
+        byType.merge(t.getTransactionType(), 1L, Long::sum);
+        byCountry.merge(t.getCountry(), 1L, Long::sum);
+        for (AmlFlag flag : AmlFlag.values()) {
+            if (t.hasFlag(flag)) flagCounts[flag.ordinal()]++;
+        }
+    }
+
+    public void merge(QualityStats other) {
+        if (other.count == 0) return;
+        maxAmount = count == 0 ? other.maxAmount : Math.max(maxAmount, other.maxAmount);
+        count += other.count;
+        totalVolume += other.totalVolume;
+        other.byType.forEach((k, v) -> byType.merge(k, v, Long::sum));
+        other.byCountry.forEach((k, v) -> byCountry.merge(k, v, Long::sum));
+        for (int i = 0; i < flagCounts.length; i++) {
+            flagCounts[i] += other.flagCounts[i];
+        }
+    }
+
+    /**
+     * Stores the aggregates under {@code prefix} so another process can {@link #readFrom} and merge them.
+     */
+    public void writeTo(Properties props, String prefix) {
+        props.setProperty(prefix + "count", Long.toString(count));
+        props.setProperty(prefix + "totalVolume", Double.toString(totalVolume));
+        props.setProperty(prefix + "maxAmount", Double.toString(maxAmount));
+        byType.forEach((k, v) -> props.setProperty(prefix + "type." + k, Long.toString(v)));
+        byCountry.forEach((k, v) -> props.setProperty(prefix + "country." + k, Long.toString(v)));
+        for (AmlFlag flag : AmlFlag.values()) {
+            props.setProperty(prefix + "flag." + flag.name(), Long.toString(flagCounts[flag.ordinal()]));
+        }
+    }
+
+    public static QualityStats readFrom(Properties props, String prefix) {
+        QualityStats stats = new QualityStats();
+        stats.count = Long.parseLong(props.getProperty(prefix + "count", "0"));
+        stats.totalVolume = Double.parseDouble(props.getProperty(prefix + "totalVolume", "0"));
+        stats.maxAmount = Double.parseDouble(props.getProperty(prefix + "maxAmount", "0"));
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(prefix + "type.")) {
+                stats.byType.put(key.substring(prefix.length() + 5), Long.parseLong(props.getProperty(key)));
+            } else if (key.startsWith(prefix + "country.")) {
+                stats.byCountry.put(key.substring(prefix.length() + 8), Long.parseLong(props.getProperty(key)));
+            }
+        }
+        for (AmlFlag flag : AmlFlag.values()) {
+            stats.flagCounts[flag.ordinal()] = Long.parseLong(props.getProperty(prefix + "flag." + flag.name(), "0"));
+        }
+        return stats;
+    }
+
+    public long getCount() { return count; }
+    public double getTotalVolume() { return totalVolume; }
+    public double getAverageAmount() { return count > 0 ? totalVolume / count : 0; }
+    public double getMaxAmount() { return maxAmount; }
+    public Map<String, Long> getByType() { return byType; }
+    public Map<String, Long> getByCountry() { return byCountry; }
+    public long getFlagCount(AmlFlag flag) { return flagCounts[flag.ordinal()]; }
+}
@@ -1,5 +1,9 @@
 package com.etl.transformer;
 
+import com.etl.Stage;
+import com.etl.StageCounters;
+import com.etl.model.AmlFlag;
+import com.etl.model.NoteCode;
 import com.etl.model.Transaction;
 
 import java.util.*;
@@ -12,26 +16,28 @@ import java.util.*;
  * - AML/fraud flagging (large cash transactions, high-risk countries)
  * - Transaction type standardization
  * - Duplicate detection
+ *
+ * As a {@link Stage} the set of seen transaction IDs spans every record
+ * processed since the last {@link #reset()}.
  */
-public class DataTransformer {
+public class DataTransformer implements Stage {
 
     // Simplified exchange rates to USD
-    private static final Map<String, Double> EXCHANGE_RATES = new HashMap<>();
-    static {
-        EXCHANGE_RATES.put("USD", 1.0);
-        EXCHANGE_RATES.put("EUR", 1.08);
-        EXCHANGE_RATES.put("GBP", 1.27);
-        EXCHANGE_RATES.put("INR", 0.012);
-        EXCHANGE_RATES.put("CAD", 0.74);
-        EXCHANGE_RATES.put("AUD", 0.65);
-        EXCHANGE_RATES.put("JPY", 0.0067);
-        EXCHANGE_RATES.put("MXN", 0.058);
-    }
+    private static final Map<String, Double> EXCHANGE_RATES = Map.of(
+            "USD", 1.0,
+            "EUR", 1.08,
+            "GBP", 1.27,
+            "INR", 0.012,
+            "CAD", 0.74,
+            "AUD", 0.65,
+            "JPY", 0.0067,
+            "MXN", 0.058
+    );
 
     // FATF high-risk / monitored jurisdictions (simplified)
-    private static final Set<String> HIGH_RISK_COUNTRIES = new HashSet<>(Arrays.asList(
+    private static final Set<String> HIGH_RISK_COUNTRIES = Set.of(
             "MM", "IQ", "IR", "KP", "SY", "YE", "AF", "LY", "SO"
-    ));
+    );
 
     // AML threshold: transactions above this amount in USD require review
     private static final double AML_THRESHOLD = 10_000.0;
@@ -43,78 +49,107 @@ public class DataTransformer {
 
     public List<Transaction> transform(List<Transaction> cleaned) {
         List<Transaction> transformed = new ArrayList<>();
-        flaggedCount = 0;
-        currencyConversions = 0;
-        seenIds.clear();
-        duplicatesRemoved = 0;
+        StageCounters counters = new StageCounters();
+        reset();
 
         for (Transaction t : cleaned) {
-
-            // Deduplicate on transaction ID
-            if (seenIds.contains(t.getTransactionId())) {
-                System.err.printf("[Transformer] Duplicate transaction ID found and removed: %s%n",
-                        t.getTransactionId());
-                duplicatesRemoved++;
-                continue;
+            if (process(t, counters)) {
+                transformed.add(t);
             }
-            seenIds.add(t.getTransactionId());
-
-            // Convert currency to USD
-            convertToUSD(t);
-
-            // Apply AML / fraud flagging rules
-            applyFlaggingRules(t);
-
-            transformed.add(t);
         }
 
+        flaggedCount = (int) counters.get(StageCounters.Counter.FLAGGED);
+        duplicatesRemoved = (int) counters.get(StageCounters.Counter.DUPLICATES_REMOVED);
+        currencyConversions = (int) counters.get(StageCounters.Counter.CURRENCY_CONVERSIONS);
+
         System.out.printf("[Transformer] Transformed: %d | Flagged: %d | Duplicates removed: %d | Currency conversions: %d%n",
                 transformed.size(), flaggedCount, duplicatesRemoved, currencyConversions);
 
         return transformed;
     }
 
-    private void convertToUSD(Transaction t) {
+    @Override
+    public boolean process(Transaction t, StageCounters counters) {
+        // Deduplicate on transaction ID
+        if (!seenIds.add(t.getTransactionId())) {
+            System.err.printf("[Transformer] Duplicate transaction ID found and removed: %s%n",
+                    t.getTransactionId());
+            counters.increment(StageCounters.Counter.DUPLICATES_REMOVED);
+            return false;
+        }
+        return enrich(t, counters);
+    }
+
+    /**
+     * Currency conversion and AML flagging without the ID dedup, for callers
+     * that deduplicate some other way (e.g. over an external sort).
+     */
+    public boolean enrich(Transaction t, StageCounters counters) {
+        // Convert currency to USD
+        if (convertToUSD(t)) {
+            counters.increment(StageCounters.Counter.CURRENCY_CONVERSIONS);
+        }
+
+        // Apply AML / fraud flagging rules
+        if (applyFlaggingRules(t)) {
+            counters.increment(StageCounters.Counter.FLAGGED);
+        }
+        return true;
+    }
+
+    /**
+     * Forgets the transaction IDs seen so far; call before each run.
+     */
+    public void reset() {
+        seenIds.clear();
+    }
+
+    // Package-private for the JMH benchmarks.
+    boolean convertToUSD(Transaction t) {
         String currency = t.getCurrency();
         if (!"USD".equals(currency)) {
-            double rate = EXCHANGE_RATES.getOrDefault(currency, 1.0);
+            // Map.of throws on null lookups
+            double rate = currency == null ? 1.0 : EXCHANGE_RATES.getOrDefault(currency, 1.0);
             double usdAmount = t.getAmount() * rate;
             t.setAmount(Math.round(usdAmount * 100.0) / 100.0);
             t.setCurrency("USD");
-            t.setCleansingNotes(t.getCleansingNotes() +
-                    String.format(" Converted from %s (rate=%.4f);", currency, rate));
-            currencyConversions++;
+            t.setSourceCurrency(currency);
+            t.setFxRate(rate);
+            t.addNote(NoteCode.CURRENCY_CONVERTED);
+            return true;
         }
+        return false;
     }
 
-    private void applyFlaggingRules(Transaction t) {
-        List<String> flags = new ArrayList<>();
+    boolean applyFlaggingRules(Transaction t) {
+        int flags = 0;
 
         // Rule 1: Large cash transactions (CTR threshold)
         if ("CASH".equals(t.getTransactionType()) && t.getAmount() >= AML_THRESHOLD) {
-            flags.add("LARGE_CASH_TRANSACTION");
+            flags |= AmlFlag.LARGE_CASH_TRANSACTION.bit();
         }
 
         // Rule 2: High-risk country
-        if (HIGH_RISK_COUNTRIES.contains(t.getCountry())) {
-            flags.add("HIGH_RISK_COUNTRY");
+        if (t.getCountry() != null && HIGH_RISK_COUNTRIES.contains(t.getCountry())) {
+            flags |= AmlFlag.HIGH_RISK_COUNTRY.bit();
         }
 
         // Rule 3: Structuring detection — just below AML threshold
         if (t.getAmount() >= 9_000.0 && t.getAmount() < AML_THRESHOLD) {
-            flags.add("POTENTIAL_STRUCTURING");
+            flags |= AmlFlag.POTENTIAL_STRUCTURING.bit();
         }
 
         // Rule 4: Unusually large transfer
         if (t.getAmount() > 50_000.0) {
-            flags.add("LARGE_WIRE_TRANSFER");
+            flags |= AmlFlag.LARGE_WIRE_TRANSFER.bit();
         }
 
-        if (!flags.isEmpty()) {
+        if (flags != 0) {
             t.setFlaggedForReview(true);
-            t.setCleansingNotes(t.getCleansingNotes() + " FLAGS: " + String.join(", ", flags) + ";");
-            flaggedCount++;
+            t.setAmlFlags(t.getAmlFlags() | flags);
+            return true;
         }
+        return false;
     }
 
     public int getFlaggedCount() { return flaggedCount; }
@@ -0,0 +1,270 @@
+package com.etl.transformer;
+
+import com.etl.Stage;
+import com.etl.StageCounters;
+import com.etl.model.NoteCode;
+import com.etl.model.Transaction;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Detects near-duplicate transactions: the same payment resent by an upstream
+ * system under a new transaction ID (same customer, amount and date, with a
+ * transaction type that differs at most in case).
+ *
+ * Records are blocked by a hash of (customerId, epochDay, amount in cents) and
+ * only compared against earlier records in the same block, so detection is
+ * linear in the number of records. When the input is larger than the
+ * partition limit, the comparison keys are hash-partitioned to temp files and
+ * each partition is grouped on its own, which bounds the block index (the
+ * keys and hash lists) to one partition at a time.
+ *
+ * {@link #detect} is in-memory only: the input list and a per-record result
+ * array stay on the heap either way. Inputs that do not fit in the heap go
+ * through the {@link Stage} form below in external-memory mode.
+ *
+ * The first occurrence of a payment is kept; later ones are either flagged
+ * for review or quarantined (removed from the output).
+ *
+ * As a {@link Stage} the detector expects records grouped by (customer, date,
+ * amount in cents) in input order within each group — the order of an
+ * external sort by (date, customer, amount, input position) — and only
+ * remembers the current group, which holds at most one record per distinct
+ * transaction type.
+ */
+public class NearDuplicateDetector implements Stage {
+
+    public enum Mode { FLAG, QUARANTINE }
+
+    public static final int DEFAULT_PARTITION_LIMIT = 500_000;
+
+    private final Mode mode;
+    private final int partitionLimit;
+
+    private int suspectedCount = 0;
+    private int newlyFlaggedCount = 0;
+    private int quarantinedCount = 0;
+    private int partitionsSpilled = 0;
+
+    private final List<Key> group = new ArrayList<>();
+    private int groupIndex = 0;
+
+    public NearDuplicateDetector() {
+        this(Mode.FLAG, DEFAULT_PARTITION_LIMIT);
+    }
+
+    public NearDuplicateDetector(Mode mode, int partitionLimit) {
+        if (partitionLimit <= 0) {
+            throw new IllegalArgumentException("Partition limit must be positive: " + partitionLimit);
+        }
+        this.mode = mode;
+        this.partitionLimit = partitionLimit;
+    }
+
+    public List<Transaction> detect(List<Transaction> transactions) throws IOException {
+        suspectedCount = 0;
+        newlyFlaggedCount = 0;
+        quarantinedCount = 0;
+        partitionsSpilled = 0;
+
+        // originals[i] = transaction ID of the record that row i duplicates, or null
+        String[] originals = new String[transactions.size()];
+
+        if (transactions.size() <= partitionLimit) {
+            findInMemory(transactions, originals);
+        } else {
+            findPartitioned(transactions, originals);
+        }
+
+        List<Transaction> result = new ArrayList<>(transactions.size());
+        for (int i = 0; i < transactions.size(); i++) {
+            Transaction t = transactions.get(i);
+            if (originals[i] == null) {
+                result.add(t);
+                continue;
+            }
+            suspectedCount++;
+            if (mode == Mode.QUARANTINE) {
+                System.err.printf("[NearDuplicateDetector] Quarantined %s (suspected duplicate of %s)%n",
+                        t.getTransactionId(), originals[i]);
+                quarantinedCount++;
+                continue;
+            }
+            if (!t.isFlaggedForReview()) {
+                t.setFlaggedForReview(true);
+                newlyFlaggedCount++;
+            }
+            t.addNote(NoteCode.SUSPECTED_DUPLICATE);
+            t.setDuplicateOf(originals[i]);
+            result.add(t);
+        }
+
+        System.out.printf("[NearDuplicateDetector] Suspected duplicates: %d | Quarantined: %d | Partitions spilled: %d%n",
+                suspectedCount, quarantinedCount, partitionsSpilled);
+        return result;
+    }
+
+    @Override
+    public boolean process(Transaction t, StageCounters counters) {
+        Key key = Key.of(groupIndex++, t);
+        if (!group.isEmpty()) {
+            Key first = group.get(0);
+            if (first.epochDay != key.epochDay || first.amountCents != key.amountCents
+                    || !first.customerId.equals(key.customerId)) {
+                group.clear();
+            }
+        }
+        for (Key earlier : group) {
+            if (earlier.sameTransaction(key)) {
+                counters.increment(StageCounters.Counter.SUSPECTED_DUPLICATES);
+                if (mode == Mode.QUARANTINE) {
+                    System.err.printf("[NearDuplicateDetector] Quarantined %s (suspected duplicate of %s)%n",
+                            t.getTransactionId(), earlier.transactionId);
+                    counters.increment(StageCounters.Counter.QUARANTINED);
+                    return false;
+                }
+                if (!t.isFlaggedForReview()) {
+                    t.setFlaggedForReview(true);
+                    counters.increment(StageCounters.Counter.FLAGGED);
+                }
+                t.addNote(NoteCode.SUSPECTED_DUPLICATE);
+                t.setDuplicateOf(earlier.transactionId);
+                return true;
+            }
+        }
+        group.add(key);
+        return true;
+    }
+
+    private void findInMemory(List<Transaction> transactions, String[] originals) {
+        Map<Long, List<Key>> blocks = new HashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            match(blocks, Key.of(i, transactions.get(i)), originals);
+        }
+    }
+
+    /**
+     * Spills comparison keys into hash partitions so that every block lands in
+     * exactly one partition, then groups each partition independently.
+     */
+    private void findPartitioned(List<Transaction> transactions, String[] originals) throws IOException {
+        int partitions = (int) Math.ceil(transactions.size() / (double) partitionLimit);
+        Path dir = Files.createTempDirectory("etl-neardup");
+        Path[] files = new Path[partitions];
+        DataOutputStream[] outs = new DataOutputStream[partitions];
+        int[] counts = new int[partitions];
+
+        try {
+            for (int p = 0; p < partitions; p++) {
+                files[p] = dir.resolve("part-" + p + ".bin");
+                outs[p] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(files[p])));
+            }
+            try {
+                for (int i = 0; i < transactions.size(); i++) {
+                    Key key = Key.of(i, transactions.get(i));
+                    int p = (int) Math.floorMod(key.blockHash, (long) partitions);
+                    key.writeTo(outs[p]);
+                    counts[p]++;
+                }
+            } finally {
+                for (DataOutputStream out : outs) {
+                    if (out != null) out.close();
+                }
+            }
+
+            for (int p = 0; p < partitions; p++) {
+                Map<Long, List<Key>> blocks = new HashMap<>();
+                try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(files[p])))) {
+                    for (int n = 0; n < counts[p]; n++) {
+                        match(blocks, Key.readFrom(in), originals);
+                    }
+                }
+                partitionsSpilled++;
+            }
+        } finally {
+            for (Path file : files) {
+                if (file != null) Files.deleteIfExists(file);
+            }
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private void match(Map<Long, List<Key>> blocks, Key key, String[] originals) {
+        List<Key> block = blocks.computeIfAbsent(key.blockHash, h -> new ArrayList<>(2));
+        for (Key earlier : block) {
+            if (earlier.sameTransaction(key)) {
+                originals[key.index] = earlier.transactionId;
+                return;
+            }
+        }
+        block.add(key);
+    }
+
+    /**
+     * The fields a near-duplicate comparison needs, detached from the full record.
+     */
+    private static final class Key {
+        final int index;
+        final String transactionId;
+        final String customerId;
+        final long epochDay;
+        final long amountCents;
+        final String type;
+        final long blockHash;
+
+        Key(int index, String transactionId, String customerId, long epochDay, long amountCents, String type) {
+            this.index = index;
+            this.transactionId = transactionId;
+            this.customerId = customerId;
+            this.epochDay = epochDay;
+            this.amountCents = amountCents;
+            this.type = type;
+            long h = customerId.hashCode();
+            h = h * 31 + epochDay;
+            h = h * 31 + amountCents;
+            this.blockHash = h;
+        }
+
+        static Key of(int index, Transaction t) {
+            String type = t.getTransactionType() == null ? "" : t.getTransactionType();
+            return new Key(index, t.getTransactionId(), t.getCustomerId(),
+                    t.getTransactionDate().toEpochDay(), amountCents(t), type);
+        }
+
+        boolean sameTransaction(Key other) {
+            return epochDay == other.epochDay
+                    && amountCents == other.amountCents
+                    && customerId.equals(other.customerId)
+                    && type.equalsIgnoreCase(other.type)
+                    && !transactionId.equals(other.transactionId);
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(index);
+            out.writeUTF(transactionId);
+            out.writeUTF(customerId);
+            out.writeLong(epochDay);
+            out.writeLong(amountCents);
+            out.writeUTF(type);
+        }
+
+        static Key readFrom(DataInputStream in) throws IOException {
+            return new Key(in.readInt(), in.readUTF(), in.readUTF(), in.readLong(), in.readLong(), in.readUTF());
+        }
+    }
+
+    /**
+     * The amount as compared: whole cents, so float noise does not split a payment from its resend.
+     */
+    public static long amountCents(Transaction t) {
+        return Math.round(t.getAmount() * 100.0);
+    }
+
+    public int getSuspectedCount() { return suspectedCount; }
+    public int getNewlyFlaggedCount() { return newlyFlaggedCount; }
+    public int getQuarantinedCount() { return quarantinedCount; }
+    public int getPartitionsSpilled() { return partitionsSpilled; }
+}
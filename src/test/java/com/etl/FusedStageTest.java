@@ -0,0 +1,88 @@
+package com.etl;
+
+import com.etl.cleaner.DataCleaner;
+import com.etl.model.ETLResult;
+import com.etl.model.Transaction;
+import com.etl.transformer.DataTransformer;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FusedStageTest {
+
+    private Transaction makeTransaction(String id, String email, double amount, String currency, String type) {
+        Transaction t = new Transaction();
+        t.setTransactionId(id);
+        t.setCustomerId("CUST001");
+        t.setFullName("test user");
+        t.setPhone("555-000-0000");
+        t.setEmail(email);
+        t.setAmount(amount);
+        t.setCurrency(currency);
+        t.setTransactionDate(LocalDate.of(2024, 1, 15));
+        t.setTransactionType(type);
+        t.setCountry("us");
+        return t;
+    }
+
+    private List<Transaction> sample() {
+        List<Transaction> raw = new ArrayList<>();
+        raw.add(makeTransaction("TXN001", "a@example.com", 12000.0, "usd", "cash"));
+        raw.add(makeTransaction("TXN002", "not-an-email", 100.0, "USD", "ACH"));
+        raw.add(makeTransaction("TXN003", "b@example.com", 100.0, "eur", "wire"));
+        raw.add(makeTransaction("TXN001", "a@example.com", 12000.0, "USD", "CASH"));
+        return raw;
+    }
+
+    @Test
+    void testFusedPassMatchesSeparatePasses() {
+        List<Transaction> separate = new DataTransformer().transform(new DataCleaner().clean(sample()));
+
+        StageCounters counters = new StageCounters();
+        List<Transaction> fused = Stage.fuse(new DataCleaner(), new DataTransformer()).run(sample(), counters);
+
+        assertEquals(separate.size(), fused.size());
+        for (int i = 0; i < fused.size(); i++) {
+            assertEquals(separate.get(i).getTransactionId(), fused.get(i).getTransactionId());
+            assertEquals(separate.get(i).getAmount(), fused.get(i).getAmount(), 0.001);
+            assertEquals(separate.get(i).getNoteCodes(), fused.get(i).getNoteCodes());
+            assertEquals(separate.get(i).getAmlFlags(), fused.get(i).getAmlFlags());
+        }
+        assertEquals(3, counters.get(StageCounters.Counter.CLEANED));
+        assertEquals(1, counters.get(StageCounters.Counter.REJECTED));
+        assertEquals(1, counters.get(StageCounters.Counter.DUPLICATES_REMOVED));
+        assertEquals(1, counters.get(StageCounters.Counter.CURRENCY_CONVERSIONS));
+        assertEquals(1, counters.get(StageCounters.Counter.FLAGGED));
+    }
+
+    @Test
+    void testRejectedRecordSkipsLaterStages() {
+        List<String> seen = new ArrayList<>();
+        Stage recorder = (t, c) -> seen.add(t.getTransactionId());
+
+        Stage.fuse(new DataCleaner(), recorder).run(sample(), new StageCounters());
+
+        assertFalse(seen.contains("TXN002"));
+    }
+
+    @Test
+    void testMergedCountersApplyToResult() {
+        StageCounters a = new StageCounters();
+        StageCounters b = new StageCounters();
+        a.increment(StageCounters.Counter.CLEANED);
+        b.increment(StageCounters.Counter.CLEANED);
+        b.reject("bad row");
+
+        a.merge(b);
+        ETLResult result = new ETLResult();
+        a.applyTo(result);
+
+        assertEquals(2, result.getTotalCleaned());
+        assertEquals(1, result.getTotalRejected());
+        assertEquals(List.of("bad row"), result.getRejectedRows());
+    }
+}
@@ -0,0 +1,111 @@
+package com.etl;
+
+import com.etl.generator.GeneratorConfig;
+import com.etl.generator.TransactionGenerator;
+import com.etl.metrics.MetricsRegistry;
+import com.etl.metrics.StageMetrics;
+import com.etl.model.ETLResult;
+import com.etl.model.Transaction;
+import com.etl.reader.CSVReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineTest {
+
+    @TempDir
+    Path dir;
+
+    private static InputStreamReader input() {
+        GeneratorConfig config = GeneratorConfig.parse(
+                "rows=5000,seed=11,customers=40,duplicateRate=0.02,nearDuplicateRate=0.03");
+        return new InputStreamReader(new TransactionGenerator(config).openStream(), StandardCharsets.UTF_8);
+    }
+
+    /** Every loaded row except the load timestamp, in primary-key order. */
+    private static List<String> rows(Path db) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite:" + db);
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM transactions ORDER BY transaction_id")) {
+            ResultSetMetaData meta = rs.getMetaData();
+            while (rs.next()) {
+                StringBuilder row = new StringBuilder();
+                for (int c = 1; c <= meta.getColumnCount(); c++) {
+                    if (!"loaded_at".equals(meta.getColumnName(c))) row.append(rs.getString(c)).append('|');
+                }
+                rows.add(row.toString());
+            }
+        }
+        return rows;
+    }
+
+    @Test
+    void testExternalModeMatchesInMemoryRun() throws IOException, SQLException {
+        Path inMemoryDb = dir.resolve("in-memory.db");
+        ETLResult inMemory = new ETLResult();
+        List<Transaction> raw = new CSVReader().read(input(), "gen");
+        inMemory.setTotalRead(raw.size());
+        MetricsRegistry metrics = new MetricsRegistry();
+        try (Pipeline pipeline = new Pipeline(inMemoryDb.toString(), metrics)) {
+            pipeline.setVerbose(false);
+            pipeline.process(raw, inMemory);
+        }
+        // Fused stages are still measured one by one
+        StageMetrics cleaner = metrics.stage("cleaner");
+        StageMetrics transformer = metrics.stage("transformer");
+        assertEquals(raw.size(), cleaner.getRecordsIn());
+        assertEquals(inMemory.getTotalCleaned(), cleaner.getRecordsOut());
+        assertEquals(cleaner.getRecordsOut(), transformer.getRecordsIn());
+        assertTrue(cleaner.getBatchLatency().getMaxNanos() > 0);
+
+        Path externalDb = dir.resolve("external.db");
+        ETLResult external = new ETLResult();
+        try (Pipeline pipeline = new Pipeline(externalDb.toString(), new MetricsRegistry())) {
+            pipeline.setVerbose(false);
+            // A small budget so every sort spills
+            pipeline.processExternal(sink -> new CSVReader().read(input(), "gen", sink), external, 1 << 20);
+        }
+
+        assertTrue(inMemory.getTotalSuspectedDuplicates() > 0, "fixture should contain near-duplicates");
+        assertTrue(inMemory.getTotalDuplicatesRemoved() > 0, "fixture should contain duplicate IDs");
+        assertEquals(inMemory.getTotalRead(), external.getTotalRead());
+        assertEquals(inMemory.getTotalRejected(), external.getTotalRejected());
+        assertEquals(inMemory.getTotalDuplicatesRemoved(), external.getTotalDuplicatesRemoved());
+        assertEquals(inMemory.getTotalSuspectedDuplicates(), external.getTotalSuspectedDuplicates());
+        assertEquals(inMemory.getTotalFlagged(), external.getTotalFlagged());
+        assertEquals(inMemory.getTotalLoaded(), external.getTotalLoaded());
+        assertEquals(rows(inMemoryDb), rows(externalDb));
+    }
+
+    @Test
+    void testFailedRunDiscardsColumnarExport() throws IOException, SQLException {
+        Path columnar = dir.resolve("export.etlc");
+        try (Pipeline pipeline = new Pipeline(dir.resolve("failed.db").toString(), new MetricsRegistry())) {
+            pipeline.setVerbose(false);
+            pipeline.setColumnarExport(columnar);
+            IOException e = assertThrows(IOException.class, () -> pipeline.processExternal(sink -> {
+                new CSVReader().read(input(), "gen", sink);
+                throw new IOException("input truncated");
+            }, new ETLResult(), 1 << 20));
+            assertEquals("input truncated", e.getMessage());
+        }
+        assertFalse(Files.exists(columnar));
+        assertFalse(Files.exists(dir.resolve("export.etlc.tmp")));
+    }
+}
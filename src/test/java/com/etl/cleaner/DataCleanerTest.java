@@ -31,7 +31,6 @@ class DataCleanerTest {
         t.setTransactionDate(LocalDate.now());
         t.setTransactionType("WIRE");
         t.setCountry("US");
-        t.setCleansingNotes("");
         return t;
     }
 
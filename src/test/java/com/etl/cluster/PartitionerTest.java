@@ -0,0 +1,138 @@
+package com.etl.cluster;
+
+import com.etl.model.AmlFlag;
+import com.etl.model.ETLResult;
+import com.etl.model.Transaction;
+import com.etl.reporter.QualityStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionerTest {
+
+    private static final String HEADER =
+            "transaction_id,customer_id,email,amount,currency,transaction_date,transaction_type,country";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testEveryRowOfACustomerLandsInTheSameShard() throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (int i = 0; i < 200; i++) {
+            csv.append(String.format("TXN%04d,CUST%02d,a@b.com,10.00,USD,2024-01-15,PURCHASE,US%n", i, i % 17));
+        }
+        csv.append("\n");
+        csv.append("BROKEN\n");
+
+        Partitioner partitioner = new Partitioner(dir, 4);
+        partitioner.partition(new StringReader(csv.toString()), "input.csv", csv.length());
+
+        Map<String, Integer> shardOfCustomer = new HashMap<>();
+        int rows = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            Path file = partitioner.shardDir(shard).resolve("input-0000.csv");
+            if (!Files.exists(file)) continue;
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(HEADER, lines.get(0), "each shard file starts with the source header");
+            for (String line : lines.subList(1, lines.size())) {
+                rows++;
+                String[] fields = line.split(",");
+                if (fields.length < 2) continue;
+                Integer previous = shardOfCustomer.put(fields[1], shard);
+                assertTrue(previous == null || previous == shard, "customer split across shards: " + fields[1]);
+            }
+        }
+
+        assertEquals(201, rows, "blank lines dropped, malformed rows passed on for the worker to reject");
+        assertEquals(17, shardOfCustomer.size());
+        assertEquals(201, Arrays.stream(partitioner.getRowsPerShard()).sum());
+        assertEquals(201, partitioner.getInputStats().get(0).getRecordsRead());
+    }
+
+    @Test
+    void testRoutesByHeaderNotColumnPosition() throws IOException {
+        String reordered = "customer_id,transaction_id,email,amount,currency,transaction_date,transaction_type,country\n"
+                + "CUST07,TXN0001,a@b.com,10.00,USD,2024-01-15,PURCHASE,US\n";
+        Partitioner partitioner = new Partitioner(dir, 8);
+        partitioner.partition(new StringReader(reordered), "reordered.csv", reordered.length());
+
+        int shard = Partitioner.shardOf("CUST07", 8);
+        assertEquals(1, partitioner.getRowsPerShard()[shard]);
+        assertTrue(Files.exists(partitioner.shardDir(shard).resolve("input-0000.csv")));
+    }
+
+    @Test
+    void testCoordinatorRefusesAnEarlierRunAndMergesOnlyManifestShards() throws IOException {
+        Path input = dir.resolve("input.csv");
+        Files.writeString(input, HEADER + "\nTXN0001,CUST07,a@b.com,10.00,USD,2024-01-15,PURCHASE,US\n");
+        Path out = dir.resolve("out");
+
+        Partitioner partitioner = new Coordinator(out, 4).partition(input.toString());
+        int shard = Partitioner.shardOf("CUST07", 4);
+        assertEquals(List.of(partitioner.shardDir(shard)), Partitioner.readManifest(Coordinator.partitionsDir(out)));
+
+        IOException rerun = assertThrows(IOException.class, () -> new Coordinator(out, 2).partition(input.toString()));
+        assertTrue(rerun.getMessage().contains("earlier run"), rerun.getMessage());
+
+        // A leftover shard directory outside the manifest is ignored by the merge
+        ETLResult result = new ETLResult();
+        result.setTotalRead(1);
+        result.setTotalLoaded(1);
+        new ResultFile(result, new QualityStats()).write(partitioner.shardDir(shard).resolve(Coordinator.RESULT_FILE));
+        Path stale = Files.createDirectories(partitioner.shardDir((shard + 1) % 4));
+        result.setTotalRead(500);
+        new ResultFile(result, new QualityStats()).write(stale.resolve(Coordinator.RESULT_FILE));
+
+        ResultFile merged = new Coordinator(out, 4).mergeResults(Coordinator.partitionsDir(out), List.of());
+        assertEquals(1, merged.getResult().getTotalRead());
+    }
+
+    @Test
+    void testResultFileRoundTripsAndMerges() throws IOException {
+        ETLResult a = new ETLResult();
+        a.setTotalRead(10);
+        a.setTotalRejected(2);
+        a.setTotalLoaded(8);
+        a.addRejectedRow("Row 3: missing amount");
+        QualityStats statsA = new QualityStats();
+        Transaction t = new Transaction();
+        t.setTransactionId("TXN1");
+        t.setCustomerId("CUST1");
+        t.setAmount(250.0);
+        t.setTransactionDate(LocalDate.of(2024, 1, 15));
+        t.setTransactionType("PURCHASE");
+        t.setCountry("US");
+        t.setAmlFlags(AmlFlag.LARGE_WIRE_TRANSFER.bit());
+        statsA.add(t);
+
+        Path file = dir.resolve(Coordinator.RESULT_FILE);
+        new ResultFile(a, statsA).write(file);
+        ResultFile read = ResultFile.read(file);
+
+        assertEquals(10, read.getResult().getTotalRead());
+        assertEquals(List.of("Row 3: missing amount"), read.getResult().getRejectedRows());
+        assertEquals(1, read.getStats().getCount());
+        assertEquals(250.0, read.getStats().getTotalVolume(), 1e-9);
+        assertEquals(1, read.getStats().getFlagCount(AmlFlag.LARGE_WIRE_TRANSFER));
+
+        ETLResult merged = new ETLResult();
+        merged.merge(read.getResult());
+        merged.merge(read.getResult());
+        QualityStats mergedStats = new QualityStats();
+        mergedStats.merge(read.getStats());
+        mergedStats.merge(read.getStats());
+        assertEquals(20, merged.getTotalRead());
+        assertEquals(16, merged.getTotalLoaded());
+        assertEquals(2, merged.getRejectedRows().size());
+        assertEquals(2, mergedStats.getFlagCount(AmlFlag.LARGE_WIRE_TRANSFER));
+    }
+}
@@ -0,0 +1,170 @@
+package com.etl.columnar;
+
+import com.etl.model.AmlFlag;
+import com.etl.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarFileTest {
+
+    private static final String[] COUNTRIES = {"US", "GB", "DE", "NG", "IR"};
+    private static final String[] TYPES = {"PURCHASE", "WIRE", "CASH", "REFUND"};
+
+    @TempDir
+    Path dir;
+
+    private List<Transaction> transactions(int rows, long seed) {
+        Random random = new Random(seed);
+        List<Transaction> list = new ArrayList<>(rows);
+        LocalDate start = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < rows; i++) {
+            Transaction t = new Transaction();
+            t.setTransactionId("TXN" + i);
+            t.setCustomerId("CUST" + random.nextInt(50));
+            t.setAmount(random.nextInt(2_000_000) / 100.0);
+            t.setCurrency(random.nextInt(4) == 0 ? "EUR" : "USD");
+            // Mostly ascending dates, as in a date-ordered load, so block ranges are narrow
+            t.setTransactionDate(start.plusDays(i / 10 + random.nextInt(3)));
+            t.setTransactionType(TYPES[random.nextInt(TYPES.length)]);
+            t.setCountry(COUNTRIES[random.nextInt(COUNTRIES.length)]);
+            if (random.nextInt(5) == 0) {
+                t.setAmlFlags(AmlFlag.values()[random.nextInt(AmlFlag.values().length)].bit());
+                t.setFlaggedForReview(true);
+            }
+            list.add(t);
+        }
+        return list;
+    }
+
+    private Path write(List<Transaction> list, int blockRows) throws IOException {
+        Path file = dir.resolve("transactions.etlc");
+        try (ColumnarWriter writer = new ColumnarWriter(file, blockRows)) {
+            writer.write(list);
+        }
+        return file;
+    }
+
+    @Test
+    void testFlaggedVolumeByCountryMatchesRowByRowTotals() throws IOException {
+        List<Transaction> list = transactions(5_000, 7);
+        Path file = write(list, 256);
+        assertFalse(Files.exists(dir.resolve("transactions.etlc.tmp")));
+
+        Map<String, long[]> expected = new TreeMap<>();
+        for (Transaction t : list) {
+            if (!t.isFlaggedForReview()) continue;
+            long[] e = expected.computeIfAbsent(t.getCountry(), k -> new long[2]);
+            e[0]++;
+            e[1] += Math.round(t.getAmount() * 100.0);
+        }
+
+        try (ColumnarFile columnar = ColumnarFile.open(file)) {
+            assertEquals(5_000, columnar.getRowCount());
+            assertEquals(20, columnar.getBlockCount());
+
+            ColumnarFilter flagged = new ColumnarFilter();
+            flagged.setFlaggedOnly(true);
+            ScanResult result = columnar.aggregate(flagged, ColumnarFile.Dimension.COUNTRY);
+
+            assertEquals(expected.keySet(), new TreeSet<>(result.getGroups().keySet()));
+            expected.forEach((country, e) -> {
+                assertEquals(e[0], result.getGroups().get(country).getCount(), country);
+                assertEquals(e[1], result.getGroups().get(country).getSumCents(), country);
+            });
+        }
+    }
+
+    @Test
+    void testDateRangeSkipsBlocksAndCombinesWithOtherFilters() throws IOException {
+        List<Transaction> list = transactions(5_000, 11);
+        Path file = write(list, 256);
+        LocalDate from = LocalDate.of(2024, 3, 1);
+        LocalDate to = LocalDate.of(2024, 3, 31);
+
+        long count = 0, cents = 0;
+        for (Transaction t : list) {
+            LocalDate d = t.getTransactionDate();
+            if (d.isBefore(from) || d.isAfter(to)) continue;
+            if (!"WIRE".equals(t.getTransactionType()) || t.getAmount() < 1000.0) continue;
+            count++;
+            cents += Math.round(t.getAmount() * 100.0);
+        }
+
+        try (ColumnarFile columnar = ColumnarFile.open(file)) {
+            ColumnarFilter filter = new ColumnarFilter();
+            filter.setFrom(from);
+            filter.setTo(to);
+            filter.setTransactionType("WIRE");
+            filter.setMinAmountUsd(1000.0);
+            ScanResult result = columnar.aggregate(filter, null);
+
+            assertEquals(count, result.getRowsMatched());
+            assertEquals(cents, result.getGroups().get("ALL").getSumCents());
+            assertTrue(result.getBlocksSkipped() > result.getBlocksScanned(),
+                    "a one-month range should skip most blocks of a date-ordered file");
+            assertEquals(columnar.getBlockCount(), result.getBlocksScanned() + result.getBlocksSkipped());
+
+            // One-sided ranges, with the bound falling inside a block
+            LocalDate bound = LocalDate.of(2024, 1, 10);
+            ColumnarFilter toOnly = new ColumnarFilter();
+            toOnly.setTo(bound);
+            assertEquals(countInRange(list, null, bound), columnar.aggregate(toOnly, null).getRowsMatched());
+
+            ColumnarFilter fromOnly = new ColumnarFilter();
+            fromOnly.setFrom(bound);
+            assertEquals(countInRange(list, bound, null), columnar.aggregate(fromOnly, null).getRowsMatched());
+        }
+    }
+
+    private static long countInRange(List<Transaction> list, LocalDate from, LocalDate to) {
+        long count = list.stream()
+                .map(Transaction::getTransactionDate)
+                .filter(d -> (from == null || !d.isBefore(from)) && (to == null || !d.isAfter(to)))
+                .count();
+        assertTrue(count > 0 && count < list.size(), "bound should split the data");
+        return count;
+    }
+
+    @Test
+    void testUnknownDictionaryValueMatchesNothingAndOriginalCurrencyIsKept() throws IOException {
+        Transaction converted = transactions(1, 3).get(0);
+        converted.setSourceCurrency("GBP");
+        converted.setCurrency("USD");
+        Path file = write(List.of(converted), 16);
+
+        try (ColumnarFile columnar = ColumnarFile.open(file)) {
+            assertEquals(List.of("GBP"), columnar.dictionary(ColumnarFile.Dimension.CURRENCY));
+
+            ColumnarFilter nowhere = new ColumnarFilter();
+            nowhere.setCountry("ZZ");
+            assertTrue(columnar.aggregate(nowhere, ColumnarFile.Dimension.COUNTRY).getGroups().isEmpty());
+        }
+    }
+
+    @Test
+    void testAbortedWriterPublishesNothing() throws IOException {
+        Path file = dir.resolve("aborted.etlc");
+        ColumnarWriter writer = new ColumnarWriter(file, 16);
+        writer.write(transactions(100, 5));
+        writer.abort();
+        writer.close();
+
+        assertFalse(Files.exists(file));
+        assertFalse(Files.exists(dir.resolve("aborted.etlc.tmp")));
+    }
+
+    @Test
+    void testRejectsFilesThatAreNotColumnarExports() throws IOException {
+        Path bogus = dir.resolve("bogus.etlc");
+        Files.writeString(bogus, "transaction_id,customer_id\nTXN1,CUST1\n");
+        assertThrows(IOException.class, () -> ColumnarFile.open(bogus));
+    }
+}
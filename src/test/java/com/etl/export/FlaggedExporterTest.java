@@ -0,0 +1,133 @@
+package com.etl.export;
+
+import com.etl.loader.DatabaseLoader;
+import com.etl.model.AmlFlag;
+import com.etl.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlaggedExporterTest {
+
+    @TempDir
+    Path dir;
+
+    private Transaction transaction(String id, LocalDate date, boolean flagged) {
+        Transaction t = new Transaction();
+        t.setTransactionId(id);
+        t.setCustomerId("CUST1");
+        t.setFullName("Smith, John");
+        t.setEmail("john@example.com");
+        t.setAmount(12_500.5);
+        t.setCurrency("USD");
+        t.setTransactionDate(date);
+        t.setTransactionType("WIRE");
+        t.setCountry("IR");
+        if (flagged) {
+            t.setFlaggedForReview(true);
+            t.setAmlFlags(AmlFlag.HIGH_RISK_COUNTRY.bit() | AmlFlag.LARGE_WIRE_TRANSFER.bit());
+        }
+        return t;
+    }
+
+    private String load(List<Transaction> transactions) throws Exception {
+        String db = dir.resolve("out.db").toString();
+        try (DatabaseLoader loader = new DatabaseLoader(db)) {
+            loader.load(transactions);
+        }
+        return db;
+    }
+
+    @Test
+    void testExportsOnlyFlaggedRowsInDateRangeAsCsv() throws Exception {
+        String db = load(List.of(
+                transaction("TXN3", LocalDate.of(2024, 3, 10), true),
+                transaction("TXN1", LocalDate.of(2024, 1, 5), true),
+                transaction("TXN2", LocalDate.of(2024, 2, 1), false),
+                transaction("TXN4", LocalDate.of(2024, 2, 20), true)));
+
+        FlaggedExporter exporter = new FlaggedExporter(db);
+        exporter.setFrom(LocalDate.of(2024, 2, 1));
+        exporter.setTo(LocalDate.of(2024, 12, 31));
+        Path out = dir.resolve("flagged.csv");
+        assertEquals(2, exporter.export(out));
+
+        List<String> lines = Files.readAllLines(out);
+        assertTrue(lines.get(0).startsWith("transaction_id,customer_id,full_name"));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith("\"TXN4\",\"CUST1\",\"Smith, John\","), "ordered by date");
+        assertTrue(lines.get(1).contains(",12500.5,2024-02-20,\"WIRE\",\"IR\",HIGH_RISK_COUNTRY|LARGE_WIRE_TRANSFER,"
+                + "\"FLAGS: HIGH_RISK_COUNTRY, LARGE_WIRE_TRANSFER;\",\"\","));
+        assertTrue(lines.get(2).startsWith("\"TXN3\","));
+        assertFalse(Files.exists(dir.resolve("flagged.csv.tmp")));
+    }
+
+    @Test
+    void testExportsJsonLines() throws Exception {
+        String db = load(List.of(transaction("TXN1", LocalDate.of(2024, 1, 5), true)));
+        FlaggedExporter exporter = new FlaggedExporter(db);
+        exporter.setFormat(FlaggedExporter.Format.JSONL);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        exporter.export(Channels.newChannel(bytes));
+        String json = bytes.toString(StandardCharsets.UTF_8);
+
+        assertTrue(json.startsWith("{\"transaction_id\":\"TXN1\",\"customer_id\":\"CUST1\",\"full_name\":\"Smith, John\""));
+        assertTrue(json.contains("\"amount_usd\":12500.5,"));
+        assertTrue(json.contains("\"aml_flags\":[\"HIGH_RISK_COUNTRY\",\"LARGE_WIRE_TRANSFER\"]"));
+        assertTrue(json.contains("\"cleansing_notes\":\"FLAGS: HIGH_RISK_COUNTRY, LARGE_WIRE_TRANSFER;\","));
+        assertTrue(json.contains("\"duplicate_of\":null,"));
+        assertTrue(json.endsWith("}\n"));
+        assertEquals(FlaggedExporter.Format.JSONL, FlaggedExporter.Format.forFile("review.jsonl"));
+    }
+
+    @Test
+    void testLoadsCommitWhileAnExportIsStreaming() throws Exception {
+        List<Transaction> initial = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            initial.add(transaction(String.format("TXN%05d", i), LocalDate.of(2024, 1, 1).plusDays(i % 300), true));
+        }
+        String db = load(initial);
+
+        // A tiny buffer forces writes mid-cursor; each write commits another load.
+        try (DatabaseLoader concurrent = new DatabaseLoader(db)) {
+            int[] loads = {0};
+            WritableByteChannel sink = new WritableByteChannel() {
+                @Override
+                public int write(ByteBuffer src) {
+                    int n = src.remaining();
+                    src.position(src.limit());
+                    if (loads[0] < 3) {
+                        try {
+                            concurrent.load(List.of(transaction("LATE" + loads[0]++, LocalDate.of(2024, 6, 1), true)));
+                        } catch (Exception e) {
+                            throw new AssertionError("load blocked by the export", e);
+                        }
+                    }
+                    return n;
+                }
+
+                @Override public boolean isOpen() { return true; }
+                @Override public void close() {}
+            };
+
+            FlaggedExporter exporter = new FlaggedExporter(db);
+            exporter.setBufferBytes(4_096);
+            exporter.setFetchSize(100);
+            assertEquals(2_000, exporter.export(sink), "the export reads the snapshot it started on");
+            assertEquals(3, loads[0]);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.etl.external;
+
+import com.etl.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExternalSorterTest {
+
+    /** sequenced() adds 24 bytes, so each record counts as 1 and the budget is a record count. */
+    private static final RecordCodec<Sequenced<Integer>> INTS = RecordCodec.sequenced(new RecordCodec<>() {
+        @Override
+        public void write(DataOutput out, Integer value) throws IOException {
+            out.writeInt(value);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+
+        @Override
+        public long estimateHeapBytes(Integer value) {
+            return -23;
+        }
+    });
+
+    private static final Comparator<Sequenced<Integer>> BY_VALUE = Comparator.comparing(Sequenced::getValue);
+
+    private List<Sequenced<Integer>> drain(Iterator<Sequenced<Integer>> it) {
+        List<Sequenced<Integer>> out = new ArrayList<>();
+        it.forEachRemaining(out::add);
+        return out;
+    }
+
+    @Test
+    void testSpillsAndMergesInSortedStableOrder() throws Exception {
+        Random random = new Random(42);
+        int n = 10_000;
+        try (ExternalSorter<Sequenced<Integer>> sorter = new ExternalSorter<>(INTS, BY_VALUE, 100)) {
+            for (int i = 0; i < n; i++) {
+                sorter.add(new Sequenced<>(i, random.nextInt(500)));
+            }
+            List<Sequenced<Integer>> sorted = drain(sorter.sorted());
+
+            assertEquals(n, sorted.size());
+            assertEquals(100, sorter.getRunsSpilled());
+            assertTrue(sorter.getMergePasses() > 0, "more runs than the fan-in need a merge pass");
+            for (int i = 1; i < n; i++) {
+                Sequenced<Integer> prev = sorted.get(i - 1);
+                Sequenced<Integer> cur = sorted.get(i);
+                assertTrue(prev.getValue() <= cur.getValue());
+                if (prev.getValue().equals(cur.getValue())) {
+                    assertTrue(prev.getSequence() < cur.getSequence(), "equal keys keep insertion order");
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSmallInputStaysInMemory() throws Exception {
+        try (ExternalSorter<Sequenced<Integer>> sorter = new ExternalSorter<>(INTS, BY_VALUE, 100)) {
+            sorter.add(new Sequenced<>(0, 3));
+            sorter.add(new Sequenced<>(1, 1));
+            sorter.add(new Sequenced<>(2, 2));
+            List<Sequenced<Integer>> sorted = drain(sorter.sorted());
+
+            assertEquals(List.of(1, 2, 3), sorted.stream().map(Sequenced::getValue).toList());
+            assertEquals(0, sorter.getRunsSpilled());
+        }
+    }
+
+    @Test
+    void testTransactionCodecRoundTrip() throws Exception {
+        Transaction t = new Transaction();
+        t.setTransactionId("TXN001");
+        t.setCustomerId("CUST001");
+        t.setFullName("Test User");
+        t.setPhone("(555) 000-0000");
+        t.setEmail("test@example.com");
+        t.setAmount(1234.56);
+        t.setCurrency("USD");
+        t.setTransactionDate(LocalDate.of(2024, 1, 15));
+        t.setTransactionType("WIRE");
+        t.setCountry("US");
+        t.setFlaggedForReview(true);
+        t.setNoteCodes(9);
+        t.setAmlFlags(2);
+        t.setSourceCurrency("EUR");
+        t.setFxRate(1.08);
+
+        Comparator<Transaction> byId = Comparator.comparing(Transaction::getTransactionId);
+        try (ExternalSorter<Transaction> sorter = new ExternalSorter<>(TransactionCodec.INSTANCE, byId, 1)) {
+            sorter.add(t);
+            Transaction copy = sorter.sorted().next();
+
+            assertEquals(1, sorter.getRunsSpilled());
+            assertNotSame(t, copy);
+            assertEquals(t.getTransactionDate(), copy.getTransactionDate());
+            assertEquals(t.getAmount(), copy.getAmount());
+            assertEquals(t.getCleansingNotes(), copy.getCleansingNotes());
+            assertEquals(t.getFullName(), copy.getFullName());
+            assertNull(copy.getDuplicateOf());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.etl.generator;
+
+import com.etl.model.Transaction;
+import com.etl.reader.CSVReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionGeneratorTest {
+
+    private byte[] generate(String spec) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new TransactionGenerator(GeneratorConfig.parse(spec)).writeTo(out);
+        return out.toByteArray();
+    }
+
+    @Test
+    void testSameSeedSameOutputRegardlessOfThreads() throws Exception {
+        byte[] single = generate("rows=40000,seed=11,threads=1");
+        byte[] parallel = generate("rows=40000,seed=11,threads=4");
+        assertArrayEquals(single, parallel);
+        assertFalse(java.util.Arrays.equals(single, generate("rows=40000,seed=12,threads=1")));
+    }
+
+    @Test
+    void testStreamIsReadableByCSVReader() throws Exception {
+        GeneratorConfig config = GeneratorConfig.parse("rows=5000,seed=3,malformedRate=0");
+        TransactionGenerator generator = new TransactionGenerator(config);
+
+        CSVReader reader = new CSVReader();
+        List<Transaction> rows = reader.read(
+                new InputStreamReader(generator.openStream(), StandardCharsets.UTF_8), "gen");
+
+        assertEquals(5000, rows.size());
+        assertEquals(0, reader.getSkippedRows());
+    }
+
+    @Test
+    void testMalformedRowsAreSkippedByReader() throws Exception {
+        GeneratorConfig config = GeneratorConfig.parse("rows=2000,seed=3,malformedRate=1");
+        CSVReader reader = new CSVReader();
+        List<Transaction> rows = reader.read(
+                new InputStreamReader(new TransactionGenerator(config).openStream(), StandardCharsets.UTF_8), "gen");
+
+        assertEquals(0, rows.size());
+        assertEquals(2000, reader.getSkippedRows());
+    }
+
+    @Test
+    void testUnknownSettingRejected() {
+        assertThrows(IllegalArgumentException.class, () -> GeneratorConfig.parse("rowz=10"));
+    }
+}
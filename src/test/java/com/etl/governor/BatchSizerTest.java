@@ -0,0 +1,58 @@
+package com.etl.governor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchSizerTest {
+
+    private static final long MS = 1_000_000;
+
+    /** Simulated disk: a fixed commit cost plus a per-row cost. */
+    private static long commitNanos(int rows) {
+        return 5 * MS + rows * 10_000L;
+    }
+
+    @Test
+    void testConvergesOnTargetCommitTime() {
+        BatchSizer sizer = new BatchSizer(50 * MS, 100, 100_000, () -> false);
+        for (int i = 0; i < 50; i++) {
+            int rows = sizer.batchSize();
+            sizer.record(rows, commitNanos(rows));
+        }
+        long commit = commitNanos(sizer.batchSize());
+        assertTrue(commit > 40 * MS && commit < 60 * MS, "commit took " + commit / MS + " ms");
+    }
+
+    @Test
+    void testGrowsAtMostTwofoldPerCommit() {
+        BatchSizer sizer = new BatchSizer(50 * MS, 100, 100_000, () -> false);
+        sizer.record(100, 100_000);
+        assertEquals(200, sizer.batchSize());
+    }
+
+    @Test
+    void testStaysWithinBounds() {
+        BatchSizer sizer = new BatchSizer(50 * MS, 100, 1_000, () -> false);
+        for (int i = 0; i < 20; i++) sizer.record(sizer.batchSize(), 1_000);
+        assertEquals(1_000, sizer.batchSize());
+        for (int i = 0; i < 20; i++) sizer.record(sizer.batchSize(), 10_000 * MS);
+        assertEquals(100, sizer.batchSize());
+    }
+
+    @Test
+    void testHalvesUnderPressure() {
+        AtomicBoolean pressure = new AtomicBoolean(false);
+        BatchSizer sizer = new BatchSizer(50 * MS, 100, 100_000, pressure::get);
+        for (int i = 0; i < 10; i++) sizer.record(sizer.batchSize(), 1_000);
+        int before = sizer.batchSize();
+
+        pressure.set(true);
+        sizer.record(before, 1_000);
+
+        assertEquals(before / 2, sizer.batchSize());
+        assertEquals(1, sizer.getShrinks());
+    }
+}
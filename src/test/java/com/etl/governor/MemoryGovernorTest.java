@@ -0,0 +1,60 @@
+package com.etl.governor;
+
+import com.etl.metrics.MetricsRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryGovernorTest {
+
+    private static MemoryGovernor governor(double occupancy) {
+        return new MemoryGovernor(0.80, 50, 100, 50_000, () -> occupancy);
+    }
+
+    @Test
+    void testPressureFollowsWatermark() {
+        assertFalse(governor(0.50).underPressure());
+        assertTrue(governor(0.85).underPressure());
+        assertFalse(governor(0.50).underPressureAfterCollection());
+        // Occupancy that a full collection does not bring down is real pressure
+        assertTrue(governor(0.85).underPressureAfterCollection());
+    }
+
+    @Test
+    void testCommitSizerShrinksUnderPressure() {
+        MemoryGovernor governor = governor(0.90);
+        BatchSizer sizer = governor.getCommitSizer();
+        int before = sizer.batchSize();
+        sizer.record(before, 1_000);
+        assertEquals(Math.max(100, before / 2), sizer.batchSize());
+        assertEquals(1, governor.getBatchShrinks());
+    }
+
+    @Test
+    void testPublishesStateAndQueuesAsGauges() {
+        MemoryGovernor governor = governor(0.40);
+        AtomicLong depth = new AtomicLong(7);
+        governor.registerQueue("early", depth::get);
+        MetricsRegistry metrics = new MetricsRegistry();
+        governor.registerWith(metrics);
+        governor.registerQueue("late", () -> 5);
+        governor.recordEarlySpill();
+
+        Map<String, Double> gauges = metrics.readGauges();
+        assertEquals(0.40, gauges.get("governor.heapOccupancy"), 1e-9);
+        assertEquals(0.40, gauges.get("governor.peakHeapOccupancy"), 1e-9);
+        assertEquals(1.0, gauges.get("governor.earlySpills"));
+        assertEquals(7.0, gauges.get("queue.early"));
+        assertEquals(5.0, gauges.get("queue.late"));
+        assertEquals(12.0, gauges.get("governor.queuedRecords"));
+    }
+
+    @Test
+    void testRejectsWatermarkOutsideUnitInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new MemoryGovernor(1.0, 50, 100, 50_000));
+        assertThrows(IllegalArgumentException.class, () -> new MemoryGovernor(0.0, 50, 100, 50_000));
+    }
+}
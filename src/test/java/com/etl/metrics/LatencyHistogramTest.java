@@ -0,0 +1,36 @@
+package com.etl.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testEmptyHistogramReportsZero() {
+        LatencyHistogram h = new LatencyHistogram();
+        assertEquals(0, h.getCount());
+        assertEquals(0, h.percentileNanos(99));
+    }
+
+    @Test
+    void testSmallValuesAreExact() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 50; i++) h.record(i);
+        assertEquals(25, h.percentileNanos(50));
+        assertEquals(50, h.percentileNanos(100));
+    }
+
+    @Test
+    void testPercentilesWithinPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long i = 1; i <= 100_000; i++) h.record(i * 1_000);
+
+        long p50 = h.percentileNanos(50);
+        long p99 = h.percentileNanos(99);
+        assertEquals(50_000_000, p50, 50_000_000 * 0.04);
+        assertEquals(99_000_000, p99, 99_000_000 * 0.04);
+        assertEquals(100_000_000, h.getMaxNanos());
+        assertEquals(100_000, h.getCount());
+    }
+}
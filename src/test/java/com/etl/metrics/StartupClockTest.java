@@ -0,0 +1,38 @@
+package com.etl.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupClockTest {
+
+    @AfterEach
+    void tearDown() {
+        StartupClock.reset();
+    }
+
+    @Test
+    void testOnlyFirstMarkIsRecorded() throws InterruptedException {
+        StartupClock.reset();
+        assertEquals(-1, StartupClock.getFirstRowMillis());
+
+        StartupClock.markFirstRow();
+        long first = StartupClock.getFirstRowMillis();
+        assertTrue(first >= 0);
+
+        Thread.sleep(20);
+        StartupClock.markFirstRow();
+        assertEquals(first, StartupClock.getFirstRowMillis());
+    }
+
+    @Test
+    void testGaugeReportsFirstRow() {
+        StartupClock.reset();
+        MetricsRegistry metrics = new MetricsRegistry();
+        metrics.gauge("startup.firstRowMillis", StartupClock::getFirstRowMillis);
+
+        StartupClock.markFirstRow();
+        assertEquals((double) StartupClock.getFirstRowMillis(), metrics.readGauges().get("startup.firstRowMillis"));
+    }
+}
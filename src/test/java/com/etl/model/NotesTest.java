@@ -0,0 +1,56 @@
+package com.etl.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NotesTest {
+
+    @Test
+    void testRenderMatchesLegacyText() {
+        Transaction t = new Transaction();
+        t.addNote(NoteCode.NAME_NORMALIZED);
+        t.addNote(NoteCode.CURRENCY_CONVERTED);
+        t.setSourceCurrency("EUR");
+        t.setFxRate(1.08);
+        t.setAmlFlags(AmlFlag.LARGE_CASH_TRANSACTION.bit() | AmlFlag.HIGH_RISK_COUNTRY.bit());
+
+        assertEquals("Name normalized; Converted from EUR (rate=1.0800); "
+                + "FLAGS: LARGE_CASH_TRANSACTION, HIGH_RISK_COUNTRY;", t.getCleansingNotes());
+        assertEquals("", new Transaction().getCleansingNotes());
+    }
+
+    @Test
+    void testSqlExpressionMatchesJavaRendering() throws Exception {
+        int allNotes = 0;
+        for (NoteCode c : NoteCode.values()) allNotes |= c.bit();
+        int[][] cases = {
+                {0, 0},
+                {NoteCode.PHONE_UNKNOWN.bit(), 0},
+                {0, AmlFlag.POTENTIAL_STRUCTURING.bit()},
+                {allNotes, AmlFlag.LARGE_WIRE_TRANSFER.bit() | AmlFlag.HIGH_RISK_COUNTRY.bit()},
+        };
+
+        try (Connection conn = DriverManager.getConnection("jdbc:sqlite::memory:");
+             PreparedStatement ps = conn.prepareStatement("SELECT " + Notes.sqlExpression()
+                     + " FROM (SELECT ? AS note_codes, ? AS aml_flags, ? AS source_currency,"
+                     + " ? AS fx_rate, ? AS duplicate_of)")) {
+            for (int[] c : cases) {
+                ps.setInt(1, c[0]);
+                ps.setInt(2, c[1]);
+                ps.setString(3, "JPY");
+                ps.setDouble(4, 0.0067);
+                ps.setString(5, "TXN1");
+                try (ResultSet rs = ps.executeQuery()) {
+                    assertTrue(rs.next());
+                    assertEquals(Notes.render(c[0], c[1], "JPY", 0.0067, "TXN1"), rs.getString(1));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.etl.reader;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CSVReaderTest {
+
+    @Test
+    void testIsoFastPathMatchesFormatter() {
+        DateTimeFormatter iso = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+        for (String date : new String[] {"2024-01-15", "1999-12-31", "2024-02-29", "2024-02-30", "2023-04-31"}) {
+            assertEquals(LocalDate.parse(date, iso), CSVReader.parseDate(date), date);
+        }
+    }
+
+    @Test
+    void testOtherFormatsAndGarbage() {
+        assertEquals(LocalDate.of(2024, 1, 31), CSVReader.parseDate("01/31/2024"));
+        assertEquals(LocalDate.of(2024, 1, 31), CSVReader.parseDate("31-01-2024"));
+        assertThrows(IllegalArgumentException.class, () -> CSVReader.parseDate("2024-13-01"));
+        assertThrows(IllegalArgumentException.class, () -> CSVReader.parseDate("2024-1x-01"));
+        assertThrows(IllegalArgumentException.class, () -> CSVReader.parseDate("0000-01-01"));
+    }
+}
@@ -0,0 +1,74 @@
+package com.etl.reader;
+
+import com.etl.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnPlanTest {
+
+    @Test
+    void testReorderedColumnsBoundByName() {
+        ColumnPlan plan = ColumnPlan.compile("country,type,date,currency,amount,email,phone,full_name,customer_id,transaction_id");
+        Transaction t = plan.parse("US,WIRE,2024-01-15,eur,\"$1,250.50\",a@b.com,5551234567,\"smith, john\",CUST1,TXN1");
+
+        assertEquals("TXN1", t.getTransactionId());
+        assertEquals("CUST1", t.getCustomerId());
+        assertEquals("smith, john", t.getFullName());
+        assertEquals(1250.50, t.getAmount(), 0.001);
+        assertEquals("EUR", t.getCurrency());
+        assertEquals(LocalDate.of(2024, 1, 15), t.getTransactionDate());
+        assertEquals("US", t.getCountry());
+    }
+
+    @Test
+    void testAliasesAndUnusedColumnsSkipped() {
+        ColumnPlan plan = ColumnPlan.compile("Txn ID,source_system,Customer,EMAIL_ADDRESS,Amt,Transaction-Date,notes,more_notes");
+        assertEquals(5, plan.getLastUsedColumn());
+
+        Transaction t = plan.parse("TXN9,\"core, v2\",CUST9,x@y.com,10,01/31/2024,\"ignored, text\",1");
+        assertEquals("TXN9", t.getTransactionId());
+        assertEquals("CUST9", t.getCustomerId());
+        assertEquals(LocalDate.of(2024, 1, 31), t.getTransactionDate());
+        // Optional columns absent from the header get defaults
+        assertEquals("USD", t.getCurrency());
+        assertEquals("", t.getCountry());
+    }
+
+    @Test
+    void testMissingRequiredColumnFailsFast() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> ColumnPlan.compile("transaction_id,customer_id,email,date"));
+        assertTrue(e.getMessage().contains("amount"));
+    }
+
+    @Test
+    void testDuplicateMappingRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ColumnPlan.compile("id,transaction_id,customer_id,email,amount,date"));
+    }
+
+    @Test
+    void testShortRowRejected() {
+        ColumnPlan plan = ColumnPlan.compile("transaction_id,customer_id,email,amount,date");
+        assertThrows(IllegalArgumentException.class, () -> plan.parse("TXN1,CUST1,a@b.com"));
+    }
+
+    @Test
+    void testReaderSkipsRowsButRejectsBadHeader() throws Exception {
+        CSVReader reader = new CSVReader();
+        List<Transaction> rows = reader.read(new StringReader(
+                "amount,date,email,customer_id,transaction_id,extra\n"
+                        + "5.00,2024-02-01,a@b.com,CUST1,TXN1,x\n"
+                        + "oops,2024-02-01,a@b.com,CUST1,TXN2,x\n"), "test");
+        assertEquals(1, rows.size());
+        assertEquals(1, reader.getSkippedRows());
+
+        assertThrows(java.io.IOException.class,
+                () -> new CSVReader().read(new StringReader("foo,bar\n1,2\n"), "test"));
+    }
+}
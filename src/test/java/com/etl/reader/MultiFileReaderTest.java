@@ -0,0 +1,98 @@
+package com.etl.reader;
+
+import com.etl.governor.MemoryGovernor;
+import com.etl.model.Transaction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MultiFileReaderTest {
+
+    private static final String HEADER = "transaction_id,customer_id,full_name,phone,email,amount,currency,date,type,country\n";
+
+    @TempDir
+    Path dir;
+
+    private String rows(String prefix, int count) {
+        StringBuilder sb = new StringBuilder(HEADER);
+        for (int i = 0; i < count; i++) {
+            sb.append(prefix).append(i)
+              .append(",CUST001,José Müller,5551234567,jose@example.com,100.00,EUR,2024-01-15,WIRE,DE\n");
+        }
+        return sb.toString();
+    }
+
+    private Path writeGzip(String name, String content) throws Exception {
+        Path file = dir.resolve(name);
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write(content.getBytes(StandardCharsets.UTF_8));
+        }
+        return file;
+    }
+
+    @Test
+    void testGzipDecodedAsUtf8() throws Exception {
+        Path file = writeGzip("part-1.csv.gz", rows("A", 3));
+        List<Transaction> result = new CSVReader().read(file.toString());
+        assertEquals(3, result.size());
+        assertEquals("José Müller", result.get(0).getFullName());
+    }
+
+    @Test
+    void testFilesReadInParallelKeepInputOrder() throws Exception {
+        writeGzip("part-1.csv.gz", rows("A", 50));
+        Files.writeString(dir.resolve("part-2.csv"), rows("B", 20), StandardCharsets.UTF_8);
+        writeGzip("part-3.csv.gz", rows("C", 30));
+
+        List<Path> files = InputFiles.resolve(dir.toString());
+        MultiFileReader reader = new MultiFileReader(3);
+        List<Transaction> result = reader.read(files);
+
+        assertEquals(100, result.size());
+        assertEquals("A0", result.get(0).getTransactionId());
+        assertEquals("B0", result.get(50).getTransactionId());
+        assertEquals("C29", result.get(99).getTransactionId());
+        assertEquals(3, reader.getFileStats().size());
+        assertEquals(20, reader.getFileStats().get(1).getRecordsRead());
+        assertTrue(reader.getAllocatedBytes() > 0, "worker allocation is measured");
+    }
+
+    @Test
+    void testGlobAndManifestResolution() throws Exception {
+        writeGzip("part-1.csv.gz", rows("A", 1));
+        writeGzip("part-2.csv.gz", rows("B", 1));
+        Files.writeString(dir.resolve("notes.txt"), "not an input");
+        Files.writeString(dir.resolve("manifest.txt"), "# inputs\npart-2.csv.gz\n");
+
+        assertEquals(2, InputFiles.resolve(dir.resolve("part-*.csv.gz").toString()).size());
+        assertEquals(2, InputFiles.resolve(dir.resolve("part-{1,2}.csv.gz").toString()).size());
+        assertEquals(3, InputFiles.resolve(dir.resolve("part-{1,2}.csv.gz") + "," + dir.resolve("part-1.csv.gz")).size());
+        List<Path> fromManifest = InputFiles.resolve("@" + dir.resolve("manifest.txt"));
+        assertEquals(List.of(dir.resolve("part-2.csv.gz").toAbsolutePath()), fromManifest);
+    }
+
+    @Test
+    void testMissingInputFails() {
+        assertThrows(java.io.IOException.class, () -> InputFiles.resolve(dir.resolve("nope.csv").toString()));
+    }
+
+    @Test
+    void testFailsFastWhenHeapIsFullInBatchMode() throws Exception {
+        Path a = dir.resolve("a.csv");
+        Files.writeString(a, rows("A", 3));
+        MultiFileReader reader = new MultiFileReader(1);
+        reader.setGovernor(new MemoryGovernor(0.80, 50, 100, 50_000, () -> 0.95));
+
+        IOException e = assertThrows(IOException.class, () -> reader.read(List.of(a)));
+        assertTrue(e.getMessage().contains("-Detl.memoryBudgetMb"), e.getMessage());
+    }
+}
@@ -30,7 +30,6 @@ class DataTransformerTest {
         t.setTransactionDate(LocalDate.now());
         t.setTransactionType(type);
         t.setCountry(country);
-        t.setCleansingNotes("");
         t.setFlaggedForReview(false);
         return t;
     }
@@ -0,0 +1,142 @@
+package com.etl.transformer;
+
+import com.etl.StageCounters;
+import com.etl.model.Transaction;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NearDuplicateDetectorTest {
+
+    private Transaction makeTransaction(String id, String customer, double amount, String type, LocalDate date) {
+        Transaction t = new Transaction();
+        t.setTransactionId(id);
+        t.setCustomerId(customer);
+        t.setFullName("Test User");
+        t.setPhone("(555) 000-0000");
+        t.setEmail("test@example.com");
+        t.setAmount(amount);
+        t.setCurrency("USD");
+        t.setTransactionDate(date);
+        t.setTransactionType(type);
+        t.setCountry("US");
+        t.setFlaggedForReview(false);
+        return t;
+    }
+
+    @Test
+    void testResentPaymentFlagged() throws Exception {
+        LocalDate day = LocalDate.of(2024, 1, 15);
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        List<Transaction> result = detector.detect(List.of(
+                makeTransaction("TXN001", "CUST001", 500.0, "WIRE", day),
+                makeTransaction("TXN901", "CUST001", 500.0, "wire", day)));
+
+        assertEquals(2, result.size());
+        assertFalse(result.get(0).isFlaggedForReview());
+        assertTrue(result.get(1).isFlaggedForReview());
+        assertTrue(result.get(1).getCleansingNotes().contains("SUSPECTED_DUPLICATE of TXN001"));
+        assertEquals(1, detector.getSuspectedCount());
+        assertEquals(1, detector.getNewlyFlaggedCount());
+    }
+
+    @Test
+    void testDifferentAmountOrDateNotDuplicate() throws Exception {
+        LocalDate day = LocalDate.of(2024, 1, 15);
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        detector.detect(List.of(
+                makeTransaction("TXN001", "CUST001", 500.0, "WIRE", day),
+                makeTransaction("TXN002", "CUST001", 500.01, "WIRE", day),
+                makeTransaction("TXN003", "CUST001", 500.0, "WIRE", day.plusDays(1)),
+                makeTransaction("TXN004", "CUST002", 500.0, "WIRE", day),
+                makeTransaction("TXN005", "CUST001", 500.0, "ACH", day)));
+        assertEquals(0, detector.getSuspectedCount());
+    }
+
+    @Test
+    void testQuarantineRemovesDuplicates() throws Exception {
+        LocalDate day = LocalDate.of(2024, 1, 15);
+        NearDuplicateDetector detector = new NearDuplicateDetector(NearDuplicateDetector.Mode.QUARANTINE, 100);
+        List<Transaction> result = detector.detect(List.of(
+                makeTransaction("TXN001", "CUST001", 500.0, "WIRE", day),
+                makeTransaction("TXN901", "CUST001", 500.0, "WIRE", day)));
+        assertEquals(1, result.size());
+        assertEquals("TXN001", result.get(0).getTransactionId());
+        assertEquals(1, detector.getQuarantinedCount());
+    }
+
+    /**
+     * 1,000 distinct payments followed by 60 resends of every 16th one under a new ID,
+     * so originals and resends are far apart in the input and spread over many blocks.
+     */
+    private List<Transaction> withResends() {
+        LocalDate day = LocalDate.of(2024, 1, 1);
+        List<Transaction> input = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            input.add(makeTransaction("A" + i, "CUST" + (i % 50), 100.0 + i, "CASH", day.plusDays(i % 3)));
+        }
+        for (int j = 0; j < 60; j++) {
+            Transaction original = input.get(j * 16);
+            input.add(makeTransaction("R" + j, original.getCustomerId(), original.getAmount(), "cash",
+                    original.getTransactionDate()));
+        }
+        return input;
+    }
+
+    private static Map<String, String> expectedResends() {
+        Map<String, String> pairs = new HashMap<>();
+        for (int j = 0; j < 60; j++) pairs.put("R" + j, "A" + (j * 16));
+        return pairs;
+    }
+
+    private static Map<String, String> duplicatePairs(List<Transaction> result) {
+        Map<String, String> pairs = new HashMap<>();
+        for (Transaction t : result) {
+            if (t.getDuplicateOf() != null) pairs.put(t.getTransactionId(), t.getDuplicateOf());
+        }
+        return pairs;
+    }
+
+    @Test
+    void testPartitionedMatchesInMemory() throws Exception {
+        NearDuplicateDetector inMemory = new NearDuplicateDetector(NearDuplicateDetector.Mode.FLAG, 10_000);
+        Map<String, String> expected = duplicatePairs(inMemory.detect(withResends()));
+
+        NearDuplicateDetector spilling = new NearDuplicateDetector(NearDuplicateDetector.Mode.FLAG, 64);
+        Map<String, String> actual = duplicatePairs(spilling.detect(withResends()));
+
+        assertTrue(spilling.getPartitionsSpilled() > 1);
+        assertEquals(60, inMemory.getSuspectedCount());
+        assertEquals(60, spilling.getSuspectedCount());
+        assertEquals(expectedResends(), expected);
+        assertEquals(expectedResends(), actual);
+    }
+
+    @Test
+    void testGroupedStageMatchesBatchDetection() throws Exception {
+        NearDuplicateDetector batch = new NearDuplicateDetector(NearDuplicateDetector.Mode.FLAG, 10_000);
+        Map<String, String> expected = duplicatePairs(batch.detect(withResends()));
+
+        // The order of the external-mode group sort: (date, customer, amount, input position)
+        List<Transaction> grouped = new ArrayList<>(withResends());
+        grouped.sort(Comparator.comparing(Transaction::getTransactionDate)
+                .thenComparing(Transaction::getCustomerId)
+                .thenComparingLong(NearDuplicateDetector::amountCents));
+        NearDuplicateDetector stage = new NearDuplicateDetector(NearDuplicateDetector.Mode.FLAG, 10_000);
+        StageCounters counters = new StageCounters();
+        for (Transaction t : grouped) {
+            assertTrue(stage.process(t, counters));
+        }
+
+        assertEquals(expectedResends(), expected);
+        assertEquals(60, counters.get(StageCounters.Counter.SUSPECTED_DUPLICATES));
+        assertEquals(expected, duplicatePairs(grouped));
+    }
+}